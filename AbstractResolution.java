@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This abstract class contains the parts shared by the solvers that saturate a set
+ * of clauses with the resolution rule ({@link Resolution} and {@link GivenClauseResolution}):
+ *
+ * - each search works on a copy of the set in input, and it is stopped by the budget
+ *   or by the exhaustion of the memory.
+ * - the tautologies are removed, and the set is simplified by the {@link Preprocessor}.
+ * - each resolvent is recorded in the trace, and it is admitted to the clauses of the
+ *   search only if it is not already present and it is not subsumed by one of them
+ *   (forward subsumption); the clauses subsumed by it are removed (backward subsumption).
+ *
+ * The subclasses choose the pairs of clauses to resolve.
+ */
+public abstract class AbstractResolution implements Solver {
+
+    //FIELDS
+    private final ClauseSet input; //the copy of the set in input
+    protected final Trace trace;
+    private int nextIndex; //the index of the next clause
+    private long generated; //the resolvents computed by the search
+    private long retained; //the clauses of the search not removed
+    private Result result; //null before the first search
+    protected StopReason stopReason;
+    protected Clause empty; //the empty clause derived by the last search, or null
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new solver for the specified set of clauses.
+     * The set is not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param trace the trace where the steps of each search are recorded.
+     * @throws NullPointerException if s or trace are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    protected AbstractResolution(ClauseSet s, Trace trace) {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(trace);
+        if (s.isEmpty()) throw new IllegalArgumentException("the clause set in input is empty");
+
+        this.input = s.copy();
+        this.trace = trace;
+        this.nextIndex = 0;
+        this.generated = 0;
+        this.retained = 0;
+        this.result = null;
+        this.stopReason = null;
+        this.empty = null;
+    }
+
+    //METHODS
+
+    /**
+     * {@inheritDoc}
+     * A search stopped by the budget starts again from the beginning.
+     */
+    @Override
+    public Result solve(Budget budget) {
+        Objects.requireNonNull(budget);
+
+        if (result == Result.SATISFIABLE || result == Result.UNSATISFIABLE) return result;
+
+        clearSearch();
+        trace.clear();
+        nextIndex = 0;
+        generated = 0;
+        stopReason = null;
+        empty = null;
+
+        try {
+            result = preprocess(input.copy(), budget.start());
+            trace.finish();
+        } catch (OutOfMemoryError e) {
+            //the clauses of the search are released, so the JVM can go on
+            clearSearch();
+            trace.clear();
+            result = Result.UNKNOWN;
+            stopReason = StopReason.OUT_OF_MEMORY;
+        }
+
+        return result;
+    }
+
+    @Override
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public Refutation getRefutation() {
+        return (empty != null) ? new Refutation(empty) : null;
+    }
+
+    /**
+     *
+     * @return the steps of the last search kept by the trace (see {@link Trace#getSteps}).
+     */
+    public List<Step> getTrace() {
+        return trace.getSteps();
+    }
+
+    /**
+     * prints the steps of the last search kept by the trace.
+     */
+    public void printTrace() {
+        Writer out = new OutputStreamWriter(System.out);
+
+        try {
+            trace.write(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * applies the resolution method to the specified clauses, which have been simplified
+     * and are not empty. The clauses are modified.
+     *
+     * @param s the clauses.
+     * @param meter the meter of the budget of the search.
+     * @return the result, UNKNOWN if the budget is exhausted.
+     */
+    protected abstract Result saturate(ClauseSet s, Budget.Meter meter);
+
+    /**
+     * releases the state kept by the subclass between the searches, before each search
+     * and when the memory is exhausted. It does nothing by default.
+     */
+    protected void clearSearch() {
+    }
+
+    /**
+     * resolves the specified clauses, records the step and checks the budget.
+     * If the resolvent is the empty clause, it is stored in "empty"; if the budget is
+     * exhausted, the reason is stored in "stopReason", and the search must stop.
+     *
+     * @param c1 the first clause.
+     * @param c2 the second clause.
+     * @param complementary the code of the literal of c1 removed with its opposite.
+     * @param meter the meter of the budget of the search.
+     * @return the resolvent, or null if it is a tautology, which is not built, or the budget is exhausted.
+     */
+    protected Clause resolve(Clause c1, Clause c2, int complementary, Budget.Meter meter) {
+        Clause res = Clause.resolveUnlessTautology(c1, c2, complementary);
+        generated++;
+
+        if (res == null) {
+            //the resolving clause is a tautology, which has not been built
+            trace.tautology(c1, c2, complementary);
+        } else {
+            trace.resolution(c1, c2, res, complementary);
+
+            /*
+             * if the resolving clause is empty, then we have found a contradiction
+             * which proves that the set is unsatisfiable.
+             */
+            if (res.isEmpty()) {
+                empty = res;
+                return res;
+            }
+        }
+
+        StopReason reason = meter.tick(generated, retained);
+
+        if (reason != null) {
+            stopReason = reason;
+            return null;
+        }
+
+        return res;
+    }
+
+    /**
+     * adds a clause to the clauses of the search, at the beginning of the search.
+     *
+     * @param c the clause.
+     * @param known the clauses of the search, hashed by content.
+     * @param kept the index of the clauses of the search used for the subsumption.
+     */
+    protected void retain(Clause c, ClauseSet known, OccurrenceIndex kept) {
+        c.setIndex(nextIndex++);
+        known.add(c);
+        kept.add(c);
+        retained++;
+    }
+
+    /**
+     * admits a resolvent to the clauses of the search, unless it is already present
+     * or it is subsumed by one of them. The clauses subsumed by the resolvent are removed.
+     * The outcome is recorded in the last step of the trace.
+     *
+     * @param r the resolvent, neither empty nor a tautology.
+     * @param known the clauses of the search, hashed by content.
+     * @param kept the index of the clauses of the search used for the subsumption.
+     * @param other another index from which the subsumed clauses are removed, or null.
+     * @return true, if the resolvent has been added to known and kept.
+     */
+    protected boolean admit(Clause r, ClauseSet known, OccurrenceIndex kept, OccurrenceIndex other) {
+        if (known.contains(r)) {
+            trace.setAlreadyPresent();
+            return false;
+        }
+
+        Clause subsumer = kept.findSubsuming(r);
+
+        if (subsumer != null) {
+            trace.setSubsumedBy(subsumer);
+            return false;
+        }
+
+        for (Clause d : kept.findSubsumed(r)) {
+            kept.remove(d);
+            if (other != null) other.remove(d);
+            trace.addSubsumed(d);
+            retained--;
+        }
+
+        retain(r, known, kept);
+
+        return true;
+    }
+
+    /**
+     * removes the tautologies and simplifies the clauses, and then saturates them.
+     */
+    private Result preprocess(ClauseSet s, Budget.Meter meter) {
+        s.removeTautologies();
+
+        if (s.isEmpty()) {
+            //in this case s contains only tautologies.
+            return Result.SATISFIABLE;
+        }
+
+        //unit propagation and pure literal elimination
+        empty = Preprocessor.simplify(s, trace, meter);
+
+        if (empty != null) return Result.UNSATISFIABLE;
+
+        if (meter.getStopReason() != null) {
+            stopReason = meter.getStopReason();
+            return Result.UNKNOWN;
+        }
+
+        if (s.isEmpty()) {
+            //in this case every clause has been removed by the preprocessing.
+            return Result.SATISFIABLE;
+        }
+
+        retained = 0;
+
+        return saturate(s, meter);
+    }
+}
@@ -1,4 +1,3 @@
-
 /**
  * this class represents a literal that is a non-negated atom. 
  * Objects instantiated by this class are immutable
@@ -13,18 +12,25 @@ public class Atom extends Literal {
      * @throws IllegalArgumentException if the "name" parameter is a empty string.
      */
     public Atom(String name) {
-        super(name);
+        super(name, false);
+    }
+
+    /**
+     * @param code the code of the atom, already interned in the SymbolTable.
+     */
+    Atom(int code) {
+        super(code);
     }
     
     //METHODS
 
     @Override
     public Literal getOpposite() {
-        return new NegAtom(this.getName());
+        return new NegAtom(SymbolTable.opposite(this.getCode()));
     }
 
     private boolean equals(Atom atm) {
-        return this.getName().equals(atm.getName());
+        return this.getCode() == atm.getCode();
     }
 
     @Override
@@ -0,0 +1,170 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * this class represents a precedence on the atoms, a total order used by the ordered
+ * resolution (see {@link Resolution}). Each atom has a rank, and an atom with a greater
+ * rank is greater; the atoms with the same rank, such as the atoms without a rank,
+ * are ordered by their variable numbers.
+ *
+ * A literal is compared by its atom, because a clause that is not a tautology does not
+ * contain two literals of the same atom.
+ */
+public class AtomOrdering {
+
+    //FIELDS
+    private final int[] ranks; //variable number -> rank, 0 for the variables without a rank
+
+    //CONSTRUCTORS
+
+    private AtomOrdering(int[] ranks) {
+        this.ranks = ranks;
+    }
+
+    //STATIC METHODS
+
+    /**
+     * creates the precedence given by the user: the first atom of the list is the greatest,
+     * and the atoms that are not in the list are smaller than the atoms of the list.
+     *
+     * @param atoms the names of the atoms, from the greatest to the smallest.
+     * @return the precedence.
+     * @throws NullPointerException if atoms, or one of its names, is null.
+     * @throws IllegalArgumentException if a name is repeated.
+     */
+    public static AtomOrdering of(List<String> atoms) {
+        Objects.requireNonNull(atoms);
+
+        int[] vars = new int[atoms.size()];
+
+        for (int i = 0; i < vars.length; i++) {
+            vars[i] = SymbolTable.intern(atoms.get(i));
+        }
+
+        int[] ranks = new int[maxVariable(vars) + 1];
+
+        for (int i = 0; i < vars.length; i++) {
+            if (ranks[vars[i]] != 0) throw new IllegalArgumentException("the atom " + atoms.get(i) + " is repeated");
+
+            ranks[vars[i]] = vars.length - i;
+        }
+
+        return new AtomOrdering(ranks);
+    }
+
+    /**
+     * creates the precedence where the atoms with fewer occurrences in s are greater,
+     * so the rare atoms are resolved first; the atoms with the same number of
+     * occurrences are ordered by their first appearance.
+     *
+     * @param s the set of clauses.
+     * @return the precedence.
+     * @throws NullPointerException if s is null.
+     */
+    public static AtomOrdering byFrequency(ClauseSet s) {
+        int[] order = appearances(s);
+        Map<Integer, Integer> counts = new HashMap<>(); //variable number -> occurrences
+
+        for (Clause c : s) {
+            for (int k = 0; k < c.size(); k++) {
+                counts.merge(SymbolTable.variable(c.codeAt(k)), 1, Integer::sum);
+            }
+        }
+
+        //the sort is stable, so the order of appearance is kept among the atoms with the same count
+        Integer[] byCount = new Integer[order.length];
+
+        for (int i = 0; i < order.length; i++) {
+            byCount[i] = order[i];
+        }
+
+        Arrays.sort(byCount, (v1, v2) -> Integer.compare(counts.get(v1), counts.get(v2)));
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = byCount[i];
+        }
+
+        return fromOrder(order);
+    }
+
+    /**
+     * creates the precedence where the atoms that appear earlier in s are greater.
+     *
+     * @param s the set of clauses.
+     * @return the precedence.
+     * @throws NullPointerException if s is null.
+     */
+    public static AtomOrdering byAppearance(ClauseSet s) {
+        return fromOrder(appearances(s));
+    }
+
+    /**
+     * @return the variable numbers of the atoms of s, in the order of their first appearance.
+     */
+    private static int[] appearances(ClauseSet s) {
+        Objects.requireNonNull(s);
+
+        Map<Integer, Integer> seen = new HashMap<>(); //variable number -> position
+        int[] res = new int[16];
+
+        for (Clause c : s) {
+            for (int k = 0; k < c.size(); k++) {
+                int var = SymbolTable.variable(c.codeAt(k));
+
+                if (seen.putIfAbsent(var, seen.size()) != null) continue;
+
+                if (seen.size() > res.length) res = Arrays.copyOf(res, 2 * res.length);
+
+                res[seen.size() - 1] = var;
+            }
+        }
+
+        return Arrays.copyOf(res, seen.size());
+    }
+
+    /**
+     * @return the precedence where the first variable of order is the greatest.
+     */
+    private static AtomOrdering fromOrder(int[] order) {
+        int[] ranks = new int[maxVariable(order) + 1];
+
+        for (int i = 0; i < order.length; i++) {
+            ranks[order[i]] = order.length - i;
+        }
+
+        return new AtomOrdering(ranks);
+    }
+
+    private static int maxVariable(int[] vars) {
+        int res = -1;
+
+        for (int var : vars) {
+            res = Math.max(res, var);
+        }
+
+        return res;
+    }
+
+    //METHODS
+
+    /**
+     * compares two atoms.
+     *
+     * @param var1 the variable number of the first atom.
+     * @param var2 the variable number of the second atom.
+     * @return a negative number, zero or a positive number if the first atom
+     *         is smaller than, equal to or greater than the second one.
+     */
+    public int compare(int var1, int var2) {
+        int res = Integer.compare(rank(var1), rank(var2));
+
+        return (res != 0) ? res : Integer.compare(var1, var2);
+    }
+
+    private int rank(int var) {
+        return (var < ranks.length) ? ranks[var] : 0;
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class without constructors solves many files of clauses in the same JVM,
+ * with a bounded number of threads, and prints a report with the result
+ * and the time of each file.
+ *
+ * The files with the ".cnf" extension are read in the DIMACS CNF format,
+ * the other ones in the plain format (see {@link PlainFormat}).
+ * Each search has the resources of a {@link Budget}: when its time expires, the
+ * result of the file is TIMEOUT, and when another limit is reached it is UNKNOWN.
+ */
+public class Batch {
+
+    /**
+     * the possible results of a file.
+     */
+    public enum Status {
+        SATISFIABLE, UNSATISFIABLE, TIMEOUT, UNKNOWN, ERROR
+    }
+
+    /**
+     * collects the files to solve: the files in the list, and the files with the
+     * ".txt" or ".cnf" extension contained in the directories of the list
+     * (not in their subdirectories), in alphabetical order.
+     *
+     * @param paths the files and the directories.
+     * @return the list of the files.
+     * @throws IOException if a directory cannot be read.
+     * @throws NullPointerException if paths is null.
+     */
+    public static List<Path> collect(List<Path> paths) throws IOException {
+        Objects.requireNonNull(paths);
+
+        List<Path> res = new ArrayList<>();
+
+        for (Path p : paths) {
+            if (!Files.isDirectory(p)) {
+                res.add(p);
+                continue;
+            }
+
+            try (Stream<Path> files = Files.list(p)) {
+                res.addAll(files
+                    .filter(f -> f.toString().endsWith(".txt") || f.toString().endsWith(".cnf"))
+                    .sorted()
+                    .collect(Collectors.toList()));
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * solves the specified files concurrently.
+     *
+     * @param files the files to solve.
+     * @param solvers the function that creates the solver of each set of clauses.
+     * @param threads the maximum number of files solved at the same time.
+     * @param budget the resources of the search of each file.
+     * @return the outcome of each file, in the same order of the list.
+     * @throws NullPointerException if files, solvers or budget are null.
+     * @throws IllegalArgumentException if threads is not positive.
+     */
+    public static List<Outcome> run(List<Path> files, Function<ClauseSet, Solver> solvers, int threads, Budget budget) {
+        Objects.requireNonNull(files);
+        Objects.requireNonNull(solvers);
+        Objects.requireNonNull(budget);
+        if (threads <= 0) throw new IllegalArgumentException("the number of threads must be positive");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<CompletableFuture<Outcome>> results = new ArrayList<>();
+
+            for (Path file : files) {
+                results.add(CompletableFuture.supplyAsync(() -> solve(file, solvers, budget), pool));
+            }
+
+            List<Outcome> res = new ArrayList<>();
+
+            for (CompletableFuture<Outcome> result : results) {
+                res.add(result.join());
+            }
+
+            return res;
+        } finally {
+            //the threads of the pool are not daemons, so they would keep the JVM alive
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * prints a table with the outcome of each file, followed by a summary.
+     *
+     * @param outcomes the outcomes of the files.
+     * @param out the stream where the table is printed.
+     * @throws NullPointerException if outcomes or out are null.
+     */
+    public static void printReport(List<Outcome> outcomes, PrintStream out) {
+        Objects.requireNonNull(outcomes);
+        Objects.requireNonNull(out);
+
+        int width = "FILE".length();
+
+        for (Outcome o : outcomes) {
+            width = Math.max(width, o.getFile().toString().length());
+        }
+
+        String row = "%-" + width + "s  %-14s %10s  %s%n";
+        int[] counts = new int[Status.values().length];
+        long total = 0;
+
+        out.printf(row, "FILE", "RESULT", "TIME (ms)", "");
+
+        for (Outcome o : outcomes) {
+            String message = (o.getMessage() != null) ? o.getMessage() : "";
+
+            out.printf(row, o.getFile(), o.getStatus(), o.getMillis(), message);
+            counts[o.getStatus().ordinal()]++;
+            total += o.getMillis();
+        }
+
+        out.println();
+        out.println(outcomes.size() + " files: "
+            + counts[Status.SATISFIABLE.ordinal()] + " satisfiable, "
+            + counts[Status.UNSATISFIABLE.ordinal()] + " unsatisfiable, "
+            + counts[Status.TIMEOUT.ordinal()] + " timeouts, "
+            + counts[Status.UNKNOWN.ordinal()] + " unknown, "
+            + counts[Status.ERROR.ordinal()] + " errors, "
+            + total + " ms of solving time");
+    }
+
+    /**
+     * reads a set of clauses, in the format given by the extension of the file.
+     *
+     * @param file the path of the file.
+     * @return the set of clauses contained in the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ClauseSet read(Path file) throws IOException {
+        if (file.toString().endsWith(".cnf")) return Dimacs.read(file);
+
+        return PlainFormat.read(file);
+    }
+
+    /**
+     * solves a single file in the current thread. The budget applies to the search,
+     * while the time of the outcome also includes the reading of the file.
+     * A file that exhausts the stack of the thread is reported as an error,
+     * like a file that cannot be read, so it does not stop the other files.
+     */
+    private static Outcome solve(Path file, Function<ClauseSet, Solver> solvers, Budget budget) {
+        long start = System.nanoTime();
+
+        try {
+            ClauseSet s = read(file);
+
+            //the empty set of clauses is satisfied by any assignment
+            if (s.isEmpty()) return new Outcome(file, Status.SATISFIABLE, elapsed(start), null);
+
+            Solver solver = solvers.apply(s);
+
+            switch (solver.solve(budget)) {
+                case SATISFIABLE:
+                    return new Outcome(file, Status.SATISFIABLE, elapsed(start), null);
+                case UNSATISFIABLE:
+                    return new Outcome(file, Status.UNSATISFIABLE, elapsed(start), null);
+                default:
+                    if (solver.getStopReason() == StopReason.DEADLINE) {
+                        return new Outcome(file, Status.TIMEOUT, elapsed(start), null);
+                    }
+
+                    return new Outcome(file, Status.UNKNOWN, elapsed(start), "stopped: " + solver.getStopReason());
+            }
+        } catch (IOException | RuntimeException | StackOverflowError e) {
+            return new Outcome(file, Status.ERROR, elapsed(start), e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static long elapsed(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+
+    /**
+     * this class represents the outcome of a file: its result and the time spent.
+     */
+    public static class Outcome {
+
+        //FIELDS
+        private final Path file;
+        private final Status status;
+        private final long millis;
+        private final String message; //the message of the error or the reason of the stop, or null
+
+        //CONSTRUCTORS
+
+        public Outcome(Path file, Status status, long millis, String message) {
+            this.file = Objects.requireNonNull(file);
+            this.status = Objects.requireNonNull(status);
+            this.millis = millis;
+            this.message = message;
+        }
+
+        //METHODS
+
+        public Path getFile() {
+            return file;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the time spent to read and solve the file, in milliseconds.
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return the message of the error or the reason of the stop,
+         *         or null if the status is not ERROR or UNKNOWN.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents the resources that a solver can use for a search:
+ * - a time limit, as a timeout from the start of the search or as a deadline.
+ * - the maximum number of generated clauses: the resolvents for the resolution
+ *   method, the learnt clauses for CDCL.
+ * - the maximum number of retained clauses, which bounds the memory used.
+ * - a flag that cancels the search when it is set by another thread.
+ *   The search is also cancelled when its thread is interrupted.
+ *
+ * A new budget has no limits. The same budget can be used by many searches,
+ * even at the same time, since the time of each search is measured separately.
+ */
+public class Budget {
+
+    //STATIC FIELDS
+    private static final long NONE = Long.MAX_VALUE;
+
+    //FIELDS
+    private long timeoutNanos; //NONE if there is no timeout
+    private Instant deadline; //null if there is no deadline
+    private long maxGenerated;
+    private long maxRetained;
+    private AtomicBoolean cancelled; //null if there is no flag
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new budget without limits.
+     */
+    public Budget() {
+        this.timeoutNanos = NONE;
+        this.deadline = null;
+        this.maxGenerated = NONE;
+        this.maxRetained = NONE;
+        this.cancelled = null;
+    }
+
+    //METHODS
+
+    /**
+     * sets the maximum time of each search, from its start.
+     *
+     * @param timeout the maximum time.
+     * @param unit the unit of timeout.
+     * @return this budget.
+     * @throws IllegalArgumentException if timeout is negative.
+     * @throws NullPointerException if unit is null.
+     */
+    public Budget setTimeout(long timeout, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if (timeout < 0) throw new IllegalArgumentException("the timeout must not be negative");
+
+        this.timeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * sets the wall-clock time after which the searches are stopped.
+     * if a timeout is also set, the search stops at the earliest of the two.
+     *
+     * @param deadline the deadline.
+     * @return this budget.
+     * @throws NullPointerException if deadline is null.
+     */
+    public Budget setDeadline(Instant deadline) {
+        this.deadline = Objects.requireNonNull(deadline);
+        return this;
+    }
+
+    /**
+     * @param max the maximum number of clauses generated by each search.
+     * @return this budget.
+     * @throws IllegalArgumentException if max is negative.
+     */
+    public Budget setMaxGenerated(long max) {
+        if (max < 0) throw new IllegalArgumentException("the maximum number of clauses must not be negative");
+
+        this.maxGenerated = max;
+        return this;
+    }
+
+    /**
+     * @param max the maximum number of clauses retained at the same time by each search.
+     * @return this budget.
+     * @throws IllegalArgumentException if max is negative.
+     */
+    public Budget setMaxRetained(long max) {
+        if (max < 0) throw new IllegalArgumentException("the maximum number of clauses must not be negative");
+
+        this.maxRetained = max;
+        return this;
+    }
+
+    /**
+     * sets the flag that cancels the searches. The searches check it periodically,
+     * so they stop shortly after it is set to true.
+     *
+     * @param cancelled the flag.
+     * @return this budget.
+     * @throws NullPointerException if cancelled is null.
+     */
+    public Budget setCancellation(AtomicBoolean cancelled) {
+        this.cancelled = Objects.requireNonNull(cancelled);
+        return this;
+    }
+
+    /**
+     * starts to measure a search with this budget.
+     *
+     * @return the meter of the search.
+     */
+    Meter start() {
+        long now = System.nanoTime();
+        long end = (timeoutNanos == NONE) ? NONE : saturatedAdd(now, timeoutNanos);
+
+        if (deadline != null) {
+            long left = Math.max(0, TimeUnit.MILLISECONDS.toNanos(deadline.toEpochMilli() - System.currentTimeMillis()));
+            end = Math.min(end, saturatedAdd(now, left));
+        }
+
+        return new Meter(end, maxGenerated, maxRetained, cancelled);
+    }
+
+    /**
+     * gives the budget left to the rest of a search, after a first phase
+     * that has already used some of its resources.
+     *
+     * @param elapsedNanos the time used by the first phase, in nanoseconds.
+     * @param generated the clauses generated by the first phase.
+     * @return a copy of this budget, with the timeout and the maximum number of
+     *         generated clauses reduced by the ones used.
+     */
+    Budget remaining(long elapsedNanos, long generated) {
+        Budget res = new Budget();
+
+        res.timeoutNanos = (timeoutNanos == NONE) ? NONE : Math.max(0, timeoutNanos - elapsedNanos);
+        res.deadline = deadline;
+        res.maxGenerated = (maxGenerated == NONE) ? NONE : Math.max(0, maxGenerated - generated);
+        res.maxRetained = maxRetained;
+        res.cancelled = cancelled;
+
+        return res;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long res = a + b;
+
+        //the sum of two positive numbers overflows into a negative one
+        return (b > 0 && res < a) ? NONE : res;
+    }
+
+
+    /**
+     * this class checks the resources used by a search. The counts of the clauses
+     * are compared at each check, while the time and the cancellation are checked
+     * only once every CLOCK_PERIOD calls of tick, since they are more expensive.
+     */
+    static class Meter {
+
+        //the number of calls of tick between two checks of the time
+        private static final int CLOCK_PERIOD = 256;
+
+        //FIELDS
+        private final long end; //the value of System.nanoTime() at the deadline, or NONE
+        private final long maxGenerated;
+        private final long maxRetained;
+        private final AtomicBoolean cancelled;
+        private int ticks;
+        private volatile StopReason stopped; //the reason returned by the checks, or null
+
+        //CONSTRUCTORS
+
+        Meter(long end, long maxGenerated, long maxRetained, AtomicBoolean cancelled) {
+            this.end = end;
+            this.maxGenerated = maxGenerated;
+            this.maxRetained = maxRetained;
+            this.cancelled = cancelled;
+            this.ticks = 0;
+            this.stopped = null;
+        }
+
+        //METHODS
+
+        /**
+         * checks all the resources. It can be called by many threads at the same time.
+         *
+         * @param generated the clauses generated so far.
+         * @param retained the clauses currently retained.
+         * @return the reason to stop the search, or null if it can go on.
+         */
+        StopReason check(long generated, long retained) {
+            StopReason res = checkCounts(generated, retained);
+            if (res != null) return res;
+
+            if ((cancelled != null && cancelled.get()) || Thread.currentThread().isInterrupted()) {
+                return stopped = StopReason.CANCELLED;
+            }
+
+            if (end != NONE && System.nanoTime() - end >= 0) return stopped = StopReason.DEADLINE;
+
+            return null;
+        }
+
+        /**
+         * checks the counts of the clauses, and periodically the other resources.
+         * It must be called by a single thread.
+         *
+         * @param generated the clauses generated so far.
+         * @param retained the clauses currently retained.
+         * @return the reason to stop the search, or null if it can go on.
+         */
+        StopReason tick(long generated, long retained) {
+            if (++ticks < CLOCK_PERIOD) return checkCounts(generated, retained);
+
+            ticks = 0;
+            return check(generated, retained);
+        }
+
+        /**
+         * @return the reason to stop returned by a check of this meter, or null if
+         *         no check has stopped the search. It lets a phase of the search that
+         *         returns something else tell the caller why it has stopped.
+         */
+        StopReason getStopReason() {
+            return stopped;
+        }
+
+        private StopReason checkCounts(long generated, long retained) {
+            if (generated > maxGenerated) return stopped = StopReason.GENERATED_CLAUSES;
+            if (retained > maxRetained) return stopped = StopReason.RETAINED_CLAUSES;
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,777 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a CDCL (conflict-driven clause learning) procedure,
+ * an alternative to the resolution method to check whether a set of clauses
+ * is satisfiable. When the set is satisfiable, it also finds a model.
+ *
+ * The implementation uses:
+ * - two watched literals for each clause, to find the unit clauses during propagation.
+ * - the first unique implication point (1UIP) to learn a clause from each conflict.
+ * - VSIDS branching: the unassigned variable with the highest activity is chosen,
+ *   and the activity of the variables involved in conflicts is increased.
+ * - restarts following the Luby sequence, and phase saving.
+ * - periodic deletion of the least active learnt clauses.
+ *
+ * The variables of the set are renumbered from 0, and the literals are encoded
+ * as 2*var + sign like in the {@link SymbolTable}.
+ */
+public class Cdcl implements Solver {
+
+    //STATIC FIELDS
+    private static final int RESTART_BASE = 100; //the number of conflicts multiplied by the Luby sequence
+    private static final double VAR_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    private static final int TRUE = 1;
+    private static final int FALSE = -1;
+    private static final int UNDEF = 0;
+
+    //FIELDS
+    private final VariableMap vars; //the local number of each variable of the set
+    private final int numVars;
+
+    private final List<int[]> clauses; //the clauses, null if deleted. The watched literals are in positions 0 and 1
+    private final List<Boolean> learnt;
+    private double[] clauseActivity;
+    private double clauseInc;
+    private int numLearnts;
+    private double maxLearnts;
+
+    private final IntVec[] watches; //for each literal, the clauses that watch it
+
+    private final int[] assign; //TRUE, FALSE or UNDEF for each variable
+    private final int[] level;
+    private final int[] reason; //the clause that implied the variable, or -1
+    private final boolean[] phase; //the last value of each variable, used for the next decision
+    private final IntVec trail;
+    private final IntVec trailLim; //the position in the trail of each decision
+    private int qhead;
+
+    private final double[] activity;
+    private double varInc;
+    private final VarHeap order;
+
+    private final boolean[] seen; //used by analyze
+
+    private int numInputs; //the input clauses with at least two literals
+    private int conflicts; //the conflicts since the last restart
+    private int restarts;
+
+    private boolean inconsistent; //true if the empty clause is in the set or is derived at level 0
+    private boolean exhausted; //true if the heap has been exhausted, so the state is not consistent
+    private Result result; //null before the first search
+    private StopReason stopReason;
+    private List<Literal> model;
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new CDCL solver for the specified set of clauses.
+     * The set is not modified.
+     *
+     * @param s the set of clauses.
+     * @throws NullPointerException if s is null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public Cdcl(ClauseSet s) {
+        Objects.requireNonNull(s);
+        if (s.isEmpty()) throw new IllegalArgumentException("the clause set in input is empty");
+
+        //renumbers the variables that appear in the set
+        this.vars = new VariableMap(s);
+        this.numVars = vars.size();
+
+        this.clauses = new ArrayList<>();
+        this.learnt = new ArrayList<>();
+        this.clauseActivity = new double[16];
+        this.clauseInc = 1;
+        this.numLearnts = 0;
+
+        this.watches = new IntVec[2 * numVars];
+        for (int i = 0; i < watches.length; i++) {
+            watches[i] = new IntVec();
+        }
+
+        this.assign = new int[numVars];
+        this.level = new int[numVars];
+        this.reason = new int[numVars];
+        this.phase = new boolean[numVars];
+        this.trail = new IntVec();
+        this.trailLim = new IntVec();
+        this.qhead = 0;
+
+        this.activity = new double[numVars];
+        this.varInc = 1;
+        this.order = new VarHeap();
+        this.seen = new boolean[numVars];
+
+        for (int v = 0; v < numVars; v++) {
+            order.insert(v);
+        }
+
+        this.inconsistent = false;
+
+        for (Clause c : s) {
+            if (c.isTautology()) continue;
+
+            int[] lits = new int[c.size()];
+
+            for (int i = 0; i < c.size(); i++) {
+                lits[i] = vars.localCode(c.codeAt(i));
+            }
+
+            addInputClause(lits);
+        }
+
+        this.maxLearnts = Math.max(clauses.size() / 3.0, 1000);
+        this.numInputs = clauses.size();
+        this.conflicts = 0;
+        this.restarts = 0;
+        this.exhausted = false;
+        this.result = null;
+        this.stopReason = null;
+    }
+
+    //METHODS
+
+    /**
+     * {@inheritDoc}
+     * A search stopped by the budget is resumed from where it stopped,
+     * keeping the learnt clauses.
+     */
+    @Override
+    public Result solve(Budget budget) {
+        Objects.requireNonNull(budget);
+
+        if (result == Result.SATISFIABLE || result == Result.UNSATISFIABLE) return result;
+
+        if (exhausted) return Result.UNKNOWN;
+
+        stopReason = null;
+
+        try {
+            result = search(budget.start());
+        } catch (OutOfMemoryError e) {
+            //the arrays may have been left half updated, so the search cannot be resumed
+            exhausted = true;
+            result = Result.UNKNOWN;
+            stopReason = StopReason.OUT_OF_MEMORY;
+        }
+
+        return result;
+    }
+
+    @Override
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * if no search has been performed yet, the satisfiability is checked without limits.
+     *
+     * @return the list of the literals that are true in the model found,
+     *         one for each variable of the set.
+     * @throws IllegalStateException if the set is not satisfiable,
+     *         or the last search has been stopped by its budget.
+     */
+    public List<Literal> getModel() {
+        if (result == null) isSatisfiable();
+
+        if (result == Result.UNSATISFIABLE) {
+            throw new IllegalStateException("the clause set is unsatisfiable");
+        } else if (result == Result.UNKNOWN) {
+            throw new IllegalStateException("the search has been stopped before finding a model");
+        }
+
+        return model;
+    }
+
+    /**
+     * adds a clause of the input, before the search.
+     */
+    private void addInputClause(int[] lits) {
+        if (inconsistent) return;
+
+        if (lits.length == 0) {
+            inconsistent = true;
+        } else if (lits.length == 1) {
+            int value = value(lits[0]);
+
+            if (value == FALSE) {
+                inconsistent = true;
+            } else if (value == UNDEF) {
+                enqueue(lits[0], -1);
+            }
+        } else {
+            attach(lits, false);
+        }
+    }
+
+    /**
+     * runs the CDCL loop, from the current state.
+     *
+     * @param meter the meter of the budget of the search.
+     * @return the result, UNKNOWN if the budget is exhausted.
+     */
+    private Result search(Budget.Meter meter) {
+        if (inconsistent) return Result.UNSATISFIABLE;
+
+        int restartLimit = RESTART_BASE * luby(restarts);
+        IntVec learntClause = new IntVec();
+        long generated = 0; //the clauses learnt by this search
+
+        while (true) {
+            StopReason reason = meter.tick(generated, numInputs + numLearnts);
+
+            if (reason != null) {
+                stopReason = reason;
+                return Result.UNKNOWN;
+            }
+
+            int confl = propagate();
+
+            if (confl != -1) {
+                conflicts++;
+                generated++;
+
+                if (decisionLevel() == 0) {
+                    inconsistent = true;
+                    return Result.UNSATISFIABLE;
+                }
+
+                int backtrackLevel = analyze(confl, learntClause);
+                cancelUntil(backtrackLevel);
+
+                if (learntClause.size() == 1) {
+                    enqueue(learntClause.get(0), -1);
+                } else {
+                    int id = attach(learntClause.toArray(), true);
+                    bumpClause(id);
+                    enqueue(learntClause.get(0), id);
+                }
+
+                varInc /= VAR_DECAY;
+                clauseInc /= CLAUSE_DECAY;
+
+                if (conflicts >= restartLimit) {
+                    cancelUntil(0);
+                    conflicts = 0;
+                    restarts++;
+                    restartLimit = RESTART_BASE * luby(restarts);
+                }
+            } else {
+                if (numLearnts - trail.size() >= maxLearnts) {
+                    reduceLearnts();
+                    maxLearnts *= 1.1;
+                }
+
+                int v = pickBranchVariable();
+
+                if (v == -1) {
+                    //every variable is assigned without conflicts
+                    saveModel();
+                    return Result.SATISFIABLE;
+                }
+
+                trailLim.add(trail.size());
+                enqueue(SymbolTable.encode(v, !phase[v]), -1);
+            }
+        }
+    }
+
+    /**
+     * adds a clause with at least two literals, watching the first two.
+     *
+     * @return the identifier of the clause.
+     */
+    private int attach(int[] lits, boolean isLearnt) {
+        int id = clauses.size();
+
+        clauses.add(lits);
+        learnt.add(isLearnt);
+        watches[lits[0]].add(id);
+        watches[lits[1]].add(id);
+
+        if (id == clauseActivity.length) {
+            clauseActivity = Arrays.copyOf(clauseActivity, 2 * id);
+        }
+
+        if (isLearnt) numLearnts++;
+
+        return id;
+    }
+
+    /**
+     * assigns the literal to true.
+     */
+    private void enqueue(int lit, int from) {
+        int v = SymbolTable.variable(lit);
+
+        assign[v] = SymbolTable.isNegated(lit) ? FALSE : TRUE;
+        level[v] = decisionLevel();
+        reason[v] = from;
+        trail.add(lit);
+    }
+
+    /**
+     * propagates the assignments of the trail with the two watched literals.
+     *
+     * @return the identifier of a conflicting clause, or -1 if there is no conflict.
+     */
+    private int propagate() {
+        while (qhead < trail.size()) {
+            int falseLit = SymbolTable.opposite(trail.get(qhead++));
+            IntVec ws = watches[falseLit];
+            int i = 0;
+            int j = 0;
+
+            while (i < ws.size()) {
+                int id = ws.get(i++);
+                int[] c = clauses.get(id);
+
+                if (c == null) continue; //the clause has been deleted
+
+                //the false literal is moved to position 1
+                if (c[0] == falseLit) {
+                    c[0] = c[1];
+                    c[1] = falseLit;
+                }
+
+                if (value(c[0]) == TRUE) {
+                    ws.set(j++, id);
+                    continue;
+                }
+
+                //searches a new literal to watch
+                boolean found = false;
+
+                for (int k = 2; k < c.length && !found; k++) {
+                    if (value(c[k]) != FALSE) {
+                        c[1] = c[k];
+                        c[k] = falseLit;
+                        watches[c[1]].add(id);
+                        found = true;
+                    }
+                }
+
+                if (found) continue;
+
+                ws.set(j++, id);
+
+                if (value(c[0]) == FALSE) {
+                    //conflict: the remaining watches are kept
+                    while (i < ws.size()) {
+                        ws.set(j++, ws.get(i++));
+                    }
+
+                    ws.shrink(j);
+                    qhead = trail.size();
+
+                    return id;
+                }
+
+                enqueue(c[0], id);
+            }
+
+            ws.shrink(j);
+        }
+
+        return -1;
+    }
+
+    /**
+     * analyzes a conflict and learns a clause with the first unique implication point.
+     * The asserting literal is put in position 0 of the learnt clause, and the literal
+     * with the highest level among the others in position 1.
+     *
+     * @param confl the conflicting clause.
+     * @param out the vector where the learnt clause is written.
+     * @return the level to backtrack to.
+     */
+    private int analyze(int confl, IntVec out) {
+        out.clear();
+        out.add(-1); //the place of the asserting literal
+
+        int pathCount = 0;
+        int p = -1;
+        int index = trail.size() - 1;
+        int id = confl;
+
+        do {
+            int[] c = clauses.get(id);
+
+            if (learnt.get(id)) bumpClause(id);
+
+            //the literal in position 0 of a reason is p itself
+            for (int k = (p == -1) ? 0 : 1; k < c.length; k++) {
+                int q = c[k];
+                int v = SymbolTable.variable(q);
+
+                if (!seen[v] && level[v] > 0) {
+                    bumpVariable(v);
+                    seen[v] = true;
+
+                    if (level[v] >= decisionLevel()) {
+                        pathCount++;
+                    } else {
+                        out.add(q);
+                    }
+                }
+            }
+
+            //the next literal of the current level in the trail
+            while (!seen[SymbolTable.variable(trail.get(index))]) {
+                index--;
+            }
+
+            p = trail.get(index);
+            index--;
+            id = reason[SymbolTable.variable(p)];
+            seen[SymbolTable.variable(p)] = false;
+            pathCount--;
+        } while (pathCount > 0);
+
+        out.set(0, SymbolTable.opposite(p));
+
+        //removes the literals implied by the other literals of the clause
+        int[] lits = out.toArray();
+        int j = 1;
+
+        for (int i = 1; i < lits.length; i++) {
+            if (!isRedundant(lits[i])) {
+                out.set(j++, lits[i]);
+            }
+        }
+
+        out.shrink(j);
+
+        for (int i = 1; i < lits.length; i++) {
+            seen[SymbolTable.variable(lits[i])] = false;
+        }
+
+        if (out.size() == 1) return 0;
+
+        //the literal with the highest level is watched
+        int max = 1;
+
+        for (int i = 2; i < out.size(); i++) {
+            if (level[SymbolTable.variable(out.get(i))] > level[SymbolTable.variable(out.get(max))]) {
+                max = i;
+            }
+        }
+
+        int tmp = out.get(1);
+        out.set(1, out.get(max));
+        out.set(max, tmp);
+
+        return level[SymbolTable.variable(out.get(1))];
+    }
+
+    /**
+     *
+     * @return true, if the literal of the learnt clause is implied by the literals
+     *         already in the clause (they are marked as seen) or by level 0.
+     */
+    private boolean isRedundant(int lit) {
+        int id = reason[SymbolTable.variable(lit)];
+
+        if (id == -1) return false;
+
+        int[] c = clauses.get(id);
+
+        for (int k = 1; k < c.length; k++) {
+            int v = SymbolTable.variable(c[k]);
+
+            if (!seen[v] && level[v] > 0) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * undoes the assignments of the levels greater than the specified one.
+     */
+    private void cancelUntil(int lvl) {
+        if (decisionLevel() <= lvl) return;
+
+        int start = trailLim.get(lvl);
+
+        for (int i = trail.size() - 1; i >= start; i--) {
+            int v = SymbolTable.variable(trail.get(i));
+
+            phase[v] = (assign[v] == TRUE);
+            assign[v] = UNDEF;
+            reason[v] = -1;
+
+            if (!order.contains(v)) order.insert(v);
+        }
+
+        trail.shrink(start);
+        trailLim.shrink(lvl);
+        qhead = start;
+    }
+
+    /**
+     *
+     * @return the unassigned variable with the highest activity, or -1 if every
+     *         variable is assigned.
+     */
+    private int pickBranchVariable() {
+        while (!order.isEmpty()) {
+            int v = order.removeMax();
+
+            if (assign[v] == UNDEF) return v;
+        }
+
+        return -1;
+    }
+
+    /**
+     * deletes half of the learnt clauses, the least active ones, except
+     * the binary clauses and the clauses that are reasons of an assignment.
+     */
+    private void reduceLearnts() {
+        boolean[] locked = new boolean[clauses.size()];
+
+        for (int i = 0; i < trail.size(); i++) {
+            int id = reason[SymbolTable.variable(trail.get(i))];
+
+            if (id != -1) locked[id] = true;
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int id = 0; id < clauses.size(); id++) {
+            int[] c = clauses.get(id);
+
+            if (c != null && learnt.get(id) && c.length > 2 && !locked[id]) {
+                candidates.add(id);
+            }
+        }
+
+        candidates.sort((a, b) -> Double.compare(clauseActivity[a], clauseActivity[b]));
+
+        //the watches of the deleted clauses are removed lazily by propagate
+        for (int i = 0; i < candidates.size() / 2; i++) {
+            clauses.set(candidates.get(i), null);
+            numLearnts--;
+        }
+    }
+
+    private void bumpVariable(int v) {
+        activity[v] += varInc;
+
+        if (activity[v] > 1e100) {
+            //rescales all the activities to avoid overflow
+            for (int i = 0; i < numVars; i++) {
+                activity[i] *= 1e-100;
+            }
+
+            varInc *= 1e-100;
+        }
+
+        if (order.contains(v)) order.increased(v);
+    }
+
+    private void bumpClause(int id) {
+        clauseActivity[id] += clauseInc;
+
+        if (clauseActivity[id] > 1e20) {
+            for (int i = 0; i < clauses.size(); i++) {
+                clauseActivity[i] *= 1e-20;
+            }
+
+            clauseInc *= 1e-20;
+        }
+    }
+
+    private int value(int lit) {
+        int v = assign[SymbolTable.variable(lit)];
+
+        return SymbolTable.isNegated(lit) ? -v : v;
+    }
+
+    private int decisionLevel() {
+        return trailLim.size();
+    }
+
+    /**
+     * stores the current assignment as the model, using the literals of the SymbolTable.
+     */
+    private void saveModel() {
+        model = new ArrayList<>();
+
+        for (int v = 0; v < numVars; v++) {
+            model.add(Literal.fromCode(SymbolTable.encode(vars.global(v), assign[v] == FALSE)));
+        }
+    }
+
+    /**
+     *
+     * @return the i-th element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ... (from i = 0)
+     */
+    private static int luby(int i) {
+        //finds the finite subsequence that contains i, and its size
+        int size = 1;
+        int seq = 0;
+
+        while (size < i + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            seq--;
+            i = i % size;
+        }
+
+        return 1 << seq;
+    }
+
+
+    /**
+     * this class represents a growable array of int, without boxing.
+     */
+    private static class IntVec {
+
+        //FIELDS
+        private int[] data;
+        private int size;
+
+        //CONSTRUCTORS
+        public IntVec() {
+            this.data = new int[4];
+            this.size = 0;
+        }
+
+        //METHODS
+        public int size() {
+            return size;
+        }
+
+        public int get(int i) {
+            return data[i];
+        }
+
+        public void set(int i, int value) {
+            data[i] = value;
+        }
+
+        public void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, 2 * size);
+            }
+
+            data[size++] = value;
+        }
+
+        public void shrink(int newSize) {
+            size = newSize;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+
+    /**
+     * this class represents the binary max-heap of the variables, ordered by activity.
+     */
+    private class VarHeap {
+
+        //FIELDS
+        private final int[] heap;
+        private final int[] position; //the position of each variable in the heap, or -1
+        private int size;
+
+        //CONSTRUCTORS
+        public VarHeap() {
+            this.heap = new int[numVars];
+            this.position = new int[numVars];
+            this.size = 0;
+            Arrays.fill(position, -1);
+        }
+
+        //METHODS
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public boolean contains(int v) {
+            return position[v] != -1;
+        }
+
+        public void insert(int v) {
+            heap[size] = v;
+            position[v] = size;
+            size++;
+            up(size - 1);
+        }
+
+        /**
+         * restores the heap after the activity of v has been increased.
+         */
+        public void increased(int v) {
+            up(position[v]);
+        }
+
+        public int removeMax() {
+            int v = heap[0];
+
+            size--;
+            position[v] = -1;
+
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                down(0);
+            }
+
+            return v;
+        }
+
+        private void up(int i) {
+            int v = heap[i];
+
+            while (i > 0 && activity[heap[(i - 1) / 2]] < activity[v]) {
+                heap[i] = heap[(i - 1) / 2];
+                position[heap[i]] = i;
+                i = (i - 1) / 2;
+            }
+
+            heap[i] = v;
+            position[v] = i;
+        }
+
+        private void down(int i) {
+            int v = heap[i];
+
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+
+                if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+                    child++;
+                }
+
+                if (activity[heap[child]] <= activity[v]) break;
+
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+
+            heap[i] = v;
+            position[v] = i;
+        }
+    }
+}
@@ -1,21 +1,40 @@
-import java.util.Set;
+import java.util.Arrays;
 import java.util.List;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
- * this class represents a clause. a clause is a disjunction of literals, 
+ * this class represents a clause. a clause is a disjunction of literals,
  * which may or may not be negated.
+ *
+ * The literals are stored by their codes (see {@link SymbolTable}) in a sorted
+ * array without duplicates, so the two literals of the same atom are always adjacent.
+ * The hash of a clause is the XOR of a random key for each of its literals
+ * (Zobrist hashing), and it is kept up to date when literals are added or removed.
+ * The signature of a clause is a 64-bit mask with one bit for each of its literals,
+ * used to reject quickly most of the subsumption checks.
+ *
+ * Since the hash depends on the literals, a clause must not change after it has been
+ * put into a {@link ClauseSet}, an index or any other hashed collection. For this reason
+ * the methods that change a clause (add, remove and union) are only used while the clause
+ * is being built, and they are not public.
  */
 public class Clause implements Iterable<Literal> {
 
-    //STATIC FIELDS 
-    private static int count = 0;
+    //STATIC FIELDS
+    private static final int[] EMPTY = new int[0];
 
     //FIELDS
-    private Set<Literal> literals; //the set containing the literals of the clause.
-    private int index;
+    private int[] literals; //the sorted codes of the literals of the clause.
+    private int size; //the number of literals actually used in the array.
+    private long hash; //the XOR of the keys of the literals.
+    private long signature; //the OR of the bits of the literals.
+    private int index; //the number given by the solver that uses the clause, or -1
+    private Clause parent1; //the first premise, if the clause is a resolvent, or null
+    private Clause parent2; //the second premise, if the clause is a resolvent, or null
+    private int pivot; //the code of the literal of parent1 removed by the resolution
+    private boolean removed; //true, if the clause has been removed from an OccurrenceIndex
 
     //CONSTRUCTORS
 
@@ -23,35 +42,50 @@ public class Clause implements Iterable<Literal> {
      * Constructs a new, empty clause.
      */
     public Clause() {
-        this.literals = new HashSet<>();
-        this.index = count;
-        count++;
+        this(EMPTY, 0);
     }
 
     /**
      * Constructs a new clause, containing the specified literal.
-     * 
+     *
      * @param l the literal to be placed into the clause
      * @throws NullPointerException - if l is null.
      */
     public Clause(Literal l) {
-        this();
-        
-        Objects.requireNonNull(l);
-        this.literals.add(l);
+        this(new int[] { Objects.requireNonNull(l).getCode() }, 1);
     }
 
     /**
      * Constructs a new clause containing the literals in the specified list.
-     * 
+     *
      * @param list the list of literals whose elements are to be placed
      *             into this clause.
      * @throws NullPointerException - if the specified list is null.
      */
     public Clause(List<Literal> list) {
-        this.literals = new HashSet<>(list);
-        this.index = count;
-        count++;
+        this(EMPTY, 0);
+
+        for (Literal l : list) {
+            this.add(l);
+        }
+    }
+
+    /**
+     * Constructs a new clause that uses the specified array as its literals.
+     * the first "size" elements of the array must be sorted and without duplicates.
+     *
+     * @param literals the sorted codes of the literals.
+     * @param size the number of codes used in the array.
+     */
+    Clause(int[] literals, int size) {
+        this.literals = literals;
+        this.size = size;
+        this.rehash();
+        this.index = -1;
+        this.parent1 = null;
+        this.parent2 = null;
+        this.pivot = -1;
+        this.removed = false;
     }
 
     //STATIC METHODS
@@ -59,132 +93,441 @@ public class Clause implements Iterable<Literal> {
     /**
      * Unites the specified clauses. Use this method to avoid side effects
      *   on specified clauses
-     * 
+     *
      * @param c1 the first clause.
      * @param c2 the second clause.
      * @return the clause that represents the union of the specified clauses.
      */
     public static Clause union(Clause c1, Clause c2) {
-        Clause result = new Clause();
+        int[] res = new int[c1.size + c2.size];
+
+        return new Clause(res, merge(res, c1, c2, -1));
+    }
+
+    /**
+     * applies the resolution rule to the specified clauses in a single merge pass:
+     * the literal with the code "pivot" and its opposite are skipped, the other literals
+     * are put into the resolving clause.
+     * The resolving clause is linked to its premises, so the derivation of a clause
+     * can be followed back to the clauses in input (see {@link Refutation}).
+     *
+     * @param c1 the first clause.
+     * @param c2 the second clause.
+     * @param pivot the code of the literal that must be deleted, with its opposite.
+     * @return the resolving clause.
+     */
+    static Clause resolve(Clause c1, Clause c2, int pivot) {
+        int[] literals = new int[Math.max(0, c1.size + c2.size - 2)];
+        Clause res = new Clause(literals, merge(literals, c1, c2, SymbolTable.variable(pivot)));
+
+        res.setPremises(c1, c2, pivot);
 
-        result.union(c1);
-        result.union(c2);
+        return res;
+    }
+
+    /**
+     * applies the resolution rule like resolve, unless the resolving clause is a tautology.
+     * The two clauses are first scanned together without allocating anything, and the scan
+     * stops at the first clash besides the pivot (a literal whose opposite is also in the
+     * resolving clause): two clauses with more than one clash always give a tautology,
+     * which is not built. Otherwise the resolving clause is built with the exact size.
+     *
+     * @param c1 the first clause.
+     * @param c2 the second clause.
+     * @param pivot the code of the literal that must be deleted, with its opposite.
+     * @return the resolving clause, or null if it is a tautology.
+     */
+    static Clause resolveUnlessTautology(Clause c1, Clause c2, int pivot) {
+        int size = resolventSize(c1, c2, SymbolTable.variable(pivot));
+
+        if (size < 0) return null;
+
+        int[] literals = new int[size];
+        Clause res = new Clause(literals, merge(literals, c1, c2, SymbolTable.variable(pivot)));
+
+        res.setPremises(c1, c2, pivot);
 
-        return result;
+        return res;
     }
-    
+
+    /**
+     * merges the sorted literals of the two clauses into "res", skipping the literals
+     * of the variable "skipVar". A negative value means that no variable is skipped.
+     *
+     * @return the number of codes written into res.
+     */
+    private static int merge(int[] res, Clause c1, Clause c2, int skipVar) {
+        int[] a = c1.literals;
+        int[] b = c2.literals;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+
+        while (i < c1.size || j < c2.size) {
+            int next;
+
+            if (j == c2.size || (i < c1.size && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i == c1.size || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                //the same literal is in both clauses
+                next = a[i++];
+                j++;
+            }
+
+            if (SymbolTable.variable(next) != skipVar) {
+                res[k++] = next;
+            }
+        }
+
+        return k;
+    }
+
+    /**
+     * scans the sorted literals of the two clauses in the same order as merge, skipping
+     * the literals of the variable "skipVar". The two literals of a variable are adjacent
+     * in that order, so a clash is found when a variable follows itself.
+     *
+     * @return the number of codes that merge would write, or -1 if two of them are opposite.
+     */
+    private static int resolventSize(Clause c1, Clause c2, int skipVar) {
+        int[] a = c1.literals;
+        int[] b = c2.literals;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        int lastVar = -1; //the variable of the last code counted
+
+        while (i < c1.size || j < c2.size) {
+            int next;
+
+            if (j == c2.size || (i < c1.size && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i == c1.size || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+
+            int var = SymbolTable.variable(next);
+
+            if (var == skipVar) continue;
+
+            if (var == lastVar) return -1;
+
+            lastVar = var;
+            k++;
+        }
+
+        return k;
+    }
+
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return the pseudo-random 64-bit key of the literal, used to compute the hash of the clauses.
+     */
+    private static long key(int code) {
+        //the finalizer of SplitMix64, so no table of keys has to be stored
+        long z = (code + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
 
     //METHODS
 
     /**
-     * @return the index of this clause.
+     * @return the index given to this clause by the solver that uses it,
+     *         or -1 if the clause is not used by a solver.
      */
     public int getIndex() {
         return index;
     }
 
+    /**
+     * sets the index of this clause. Each solver numbers its own clauses,
+     * so the indexes do not depend on the other solvers running at the same time.
+     *
+     * @param index the new index.
+     */
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return true, if this clause has been removed from an {@link OccurrenceIndex}.
+     *         a copy of the clause is not removed.
+     */
+    boolean isRemoved() {
+        return removed;
+    }
+
+    /**
+     * marks this clause as removed. It is called by {@link OccurrenceIndex#remove}.
+     */
+    void setRemoved() {
+        this.removed = true;
+    }
+
+    private void setPremises(Clause c1, Clause c2, int pivot) {
+        this.parent1 = c1;
+        this.parent2 = c2;
+        this.pivot = pivot;
+    }
+
+    /**
+     * @return the first premise, if this clause is a resolvent. null, otherwise.
+     */
+    Clause getParent1() {
+        return parent1;
+    }
+
+    /**
+     * @return the second premise, if this clause is a resolvent. null, otherwise.
+     */
+    Clause getParent2() {
+        return parent2;
+    }
+
+    /**
+     * @return the code of the literal of the first premise removed by the resolution,
+     *         or -1 if this clause is not a resolvent.
+     */
+    int getPivot() {
+        return pivot;
+    }
+
+    /**
+     * @return a new clause with the same literals and premises of this clause, without an index.
+     *         The premises are kept, so the derivation of a clause given to a solver, such as
+     *         a resolvent of {@link VariableElimination}, can still be followed back.
+     */
+    Clause copy() {
+        Clause res = new Clause(Arrays.copyOf(literals, size), size);
+
+        res.setPremises(parent1, parent2, pivot);
+
+        return res;
+    }
+
+    /**
+     *
+     * @param i the position of the literal, between 0 and size() - 1.
+     * @return the code of the literal at the specified position.
+     */
+    int codeAt(int i) {
+        return literals[i];
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return the bit of the literal in the signature of the clauses.
+     */
+    private static long bit(int code) {
+        return 1L << (code & 63);
+    }
+
+    /**
+     * recomputes the hash and the signature of this clause from all of its literals.
+     */
+    private void rehash() {
+        this.hash = 0;
+        this.signature = 0;
+
+        for (int i = 0; i < size; i++) {
+            this.hash ^= key(literals[i]);
+            this.signature |= bit(literals[i]);
+        }
+    }
+
     @Override
     public Iterator<Literal> iterator() {
-        return literals.iterator();
+        return new Iterator<Literal>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Literal next() {
+                if (next >= size) throw new NoSuchElementException();
+
+                return Literal.fromCode(literals[next++]);
+            }
+        };
     }
 
     /**
-     * this method adds a new literal to the clause. 
+     * this method adds a new literal to the clause.
      * if the literal is already present in the this clause, it does nothing.
-     * 
+     * it must be called only while the clause is being built, before it is hashed.
+     *
      * @param l the literal to add to the clause.
      * @throws NullPointerException if the parameter is null
      */
-    public void add(Literal l) {
+    void add(Literal l) {
         Objects.requireNonNull(l);
 
-        this.literals.add(l);
+        int pos = Arrays.binarySearch(literals, 0, size, l.getCode());
+        if (pos >= 0) return;
+
+        pos = -(pos + 1);
+
+        if (size == literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(4, 2 * size));
+        }
+
+        System.arraycopy(literals, pos, literals, pos + 1, size - pos);
+        literals[pos] = l.getCode();
+        size++;
+        hash ^= key(l.getCode());
+        signature |= bit(l.getCode());
     }
 
     /**
-     * this method removes a literal from the clause. 
+     * this method removes a literal from the clause.
      * if the literal is not present in the clause, it does nothing.
-     * 
+     * it must be called only while the clause is being built, before it is hashed.
+     *
      * @param l the literal to be removed from the clause.
      * @throws NullPointerException if the parameter is null.
      */
-    public void remove(Literal l) {
+    void remove(Literal l) {
         Objects.requireNonNull(l);
 
-        this.literals.remove(l);
+        int pos = Arrays.binarySearch(literals, 0, size, l.getCode());
+        if (pos < 0) return;
+
+        System.arraycopy(literals, pos + 1, literals, pos, size - pos - 1);
+        size--;
+        //other literals can share the bit of l, so the signature is recomputed
+        this.rehash();
     }
 
     /**
-     * 
+     *
      * @return the number of literals in the clause.
      */
     public int size() {
-        return this.literals.size();
+        return this.size;
     }
-    
+
     /**
      *
      * @return true, if the Clause is a tautology.
      *         false, otherwise.
      */
     public boolean isTautology() {
-        for (Literal l1 : this.literals) {
-            for (Literal l2 : this.literals) { 
-                if (l1.equals(l2.getOpposite())) return true;
-            }
+        //the literals are sorted, so an atom and its negation are adjacent
+        for (int i = 1; i < size; i++) {
+            if (literals[i - 1] == SymbolTable.opposite(literals[i])) return true;
         }
 
         return false;
     }
 
+    /**
+     * checks whether this clause subsumes the specified clause, that is
+     * whether every literal of this clause is also in c.
+     *
+     * @param c the clause that could be subsumed.
+     * @return true, if this clause subsumes c.
+     * @throws NullPointerException if c is null.
+     */
+    public boolean subsumes(Clause c) {
+        if (this.size > c.size || (this.signature & ~c.signature) != 0) return false;
+
+        int j = 0;
+
+        for (int i = 0; i < this.size; i++) {
+            while (j < c.size && c.literals[j] < this.literals[i]) {
+                j++;
+            }
+
+            if (j == c.size || c.literals[j] != this.literals[i]) return false;
+
+            j++;
+        }
+
+        return true;
+    }
+
     /**
      * unite this clause with the specified clause.
-     * 
+     * it must be called only while the clause is being built, before it is hashed;
+     * the static method {@link #union(Clause, Clause)} builds a new clause instead.
+     *
      * @param c the clause to be united with this clause.
      */
-    public void union(Clause c) {
+    void union(Clause c) {
         Objects.requireNonNull(c);
 
-        for (Literal l : c.literals) {
-            this.literals.add(l);
-        }
+        int[] res = new int[this.size + c.size];
+        this.size = merge(res, this, c, -1);
+        this.literals = res;
+        this.rehash();
     }
 
 
     /**
-     * 
+     *
      * @return true if the clause is empty.
      */
     public boolean isEmpty() {
-        return this.literals.isEmpty();
+        return this.size == 0;
     }
 
     /**
-     * 
+     *
      * @param l the literal we want to check in the clause
      * @return true, if the literal is present in the clause.
      * @throws NullPointerException if the literal is null.
      */
     public boolean contains(Literal l) {
         Objects.requireNonNull(l);
-        
-        return this.literals.contains(l);
+
+        return Arrays.binarySearch(literals, 0, size, l.getCode()) >= 0;
     }
 
-    
-    @Override
-    public String toString() {
-        if (this.isEmpty()) return "{}"; //the empty clause represents the contradiction.
 
-        StringBuilder res = new StringBuilder(this.literals.toString());
-        res.setCharAt(0, '{');
-        res.setCharAt(res.length() - 1, '}');
+    /**
+     * appends the clause to the specified buffer, in the same form as toString,
+     * without creating the literals and their strings.
+     *
+     * @param buffer the buffer.
+     * @return the buffer.
+     * @throws NullPointerException if buffer is null.
+     */
+    public StringBuilder appendTo(StringBuilder buffer) {
+        Objects.requireNonNull(buffer);
+
+        buffer.append('{');
+
+        for (int i = 0; i < size; i++) {
+            if (i != 0) buffer.append(", ");
+            if (SymbolTable.isNegated(literals[i])) buffer.append('~');
+            buffer.append(SymbolTable.getName(SymbolTable.variable(literals[i])));
+        }
 
-        return res.toString();
+        return buffer.append('}'); //the empty clause {} represents the contradiction.
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
     }
 
     private boolean equals(Clause c) {
-        return this.literals.equals(c.literals);
+        return this.hash == c.hash && Arrays.equals(this.literals, 0, this.size, c.literals, 0, c.size);
     }
 
     @Override
@@ -194,6 +537,6 @@ public class Clause implements Iterable<Literal> {
 
     @Override
     public int hashCode() {
-        return 1;
+        return (int) (hash ^ (hash >>> 32));
     }
 }
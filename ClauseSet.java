@@ -1,13 +1,17 @@
 import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Iterator;
 import java.util.Objects;
 
 /**
  *  This class represents a formula in conjunctive normal form (CNF), 
  *  using a set of clauses.
+ *  The clauses are hashed by their content, so checking whether
+ *  a clause is already present takes constant time.
+ *  They are iterated in the order in which they have been added, so a set read
+ *  from a file and written again keeps the order of its clauses.
  */
 public class ClauseSet implements Iterable<Clause> {
 
@@ -20,7 +24,7 @@ public class ClauseSet implements Iterable<Clause> {
      * Constructs a new, empty clause set.
      */
     public ClauseSet() {
-        this.clauses = new HashSet<>();
+        this.clauses = new LinkedHashSet<>();
     }
 
     /**
@@ -44,7 +48,7 @@ public class ClauseSet implements Iterable<Clause> {
      * @throws NullPointerException - if the specified list is null.
      */
     public ClauseSet(List<Clause> list) {
-        this.clauses = new HashSet<>(list);
+        this.clauses = new LinkedHashSet<>(list);
     }
 
     //METHODS
@@ -152,6 +156,20 @@ public class ClauseSet implements Iterable<Clause> {
         return null;
     }
 
+    /**
+     * @return a new clause set with a copy of each clause of this set,
+     *         so that a solver can number and modify its clauses without side effects.
+     */
+    ClauseSet copy() {
+        ClauseSet res = new ClauseSet();
+
+        for (Clause c : this.clauses) {
+            res.clauses.add(c.copy());
+        }
+
+        return res;
+    }
+
     
     @Override
     public String toString() {
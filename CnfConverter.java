@@ -0,0 +1,108 @@
+import java.util.Objects;
+
+/**
+ * This class without constructors converts a formula into an equivalent
+ * set of clauses, without recursion.
+ *
+ * The formula is first turned into a {@link FormulaDag}, so that identical
+ * subformulas are converted only once. The negations are not rewritten: each node
+ * is converted with the polarity in which it occurs, which is the same as
+ * pushing the negations inward to the negation normal form (NNF).
+ * Then the clauses of the nodes are computed from the leaves to the root:
+ * a conjunction is the union of the sets of its children, and a disjunction is
+ * the set of the unions of each pair of clauses of its children.
+ */
+public class CnfConverter {
+
+    /**
+     * converts the specified formula into an equivalent set of clauses.
+     *
+     * @param f the formula to convert.
+     * @return the set of clauses equivalent to f.
+     * @throws NullPointerException if f is null.
+     */
+    public static ClauseSet toCnf(Formula f) {
+        Objects.requireNonNull(f);
+
+        FormulaDag dag = new FormulaDag(f);
+        int[] polarities = dag.polarities();
+
+        //the clauses of each node when it occurs positively, and when it occurs negatively
+        ClauseSet[] pos = new ClauseSet[dag.size()];
+        ClauseSet[] neg = new ClauseSet[dag.size()];
+
+        for (int n = 0; n < dag.size(); n++) {
+            if ((polarities[n] & FormulaDag.POSITIVE) != 0) pos[n] = convert(dag, n, true, pos, neg);
+            if ((polarities[n] & FormulaDag.NEGATIVE) != 0) neg[n] = convert(dag, n, false, pos, neg);
+        }
+
+        return pos[dag.root()];
+    }
+
+    /**
+     * computes the clauses of the node n, or of its negation if positive is false.
+     * the clauses of its children must have been already computed.
+     */
+    private static ClauseSet convert(FormulaDag dag, int n, boolean positive, ClauseSet[] pos, ClauseSet[] neg) {
+        if (dag.isAtom(n)) {
+            int code = dag.getAtom(n);
+            Literal lit = Literal.fromCode(positive ? code : SymbolTable.opposite(code));
+
+            return new ClauseSet(new Clause(lit));
+        }
+
+        int l = dag.getLeft(n);
+        int r = dag.getRight(n);
+
+        switch (dag.getConnective(n)) {
+            case NOT:
+                return positive ? neg[l] : pos[l];
+            case AND:
+                // ~(g1 & g2)  ===>  ~g1 | ~g2
+                return positive ? and(pos[l], pos[r]) : or(neg[l], neg[r]);
+            case OR:
+                // ~(g1 | g2)  ===>  ~g1 & ~g2
+                return positive ? or(pos[l], pos[r]) : and(neg[l], neg[r]);
+            case IMPLIES:
+                // (g1 -> g2)  ===>  ~g1 | g2,  ~(g1 -> g2)  ===>  g1 & ~g2
+                return positive ? or(neg[l], pos[r]) : and(pos[l], neg[r]);
+            case IFF:
+                // (g1 <-> g2)  ===>  (~g1 | g2) & (g1 | ~g2)
+                // ~(g1 <-> g2)  ===>  (g1 | g2) & (~g1 | ~g2)
+                if (positive) {
+                    return and(or(neg[l], pos[r]), or(pos[l], neg[r]));
+                }
+
+                return and(or(pos[l], pos[r]), or(neg[l], neg[r]));
+        }
+
+        throw new Error("An error occurred while executing the program");
+    }
+
+    /**
+     * @return a new set with the clauses of both sets.
+     */
+    private static ClauseSet and(ClauseSet cs1, ClauseSet cs2) {
+        ClauseSet res = new ClauseSet();
+
+        res.union(cs1);
+        res.union(cs2);
+
+        return res;
+    }
+
+    /**
+     * @return a new set with the union of each clause of cs1 with each clause of cs2.
+     */
+    private static ClauseSet or(ClauseSet cs1, ClauseSet cs2) {
+        ClauseSet res = new ClauseSet();
+
+        for (Clause c1 : cs1) {
+            for (Clause c2 : cs2) {
+                res.add(Clause.union(c1, c2));
+            }
+        }
+
+        return res;
+    }
+}
@@ -117,102 +117,13 @@ public class CompoundFormula extends Formula {
     }
 
 
+    /**
+     * converts this formula to conjunctive normal form, without recursion
+     * (see {@link CnfConverter}), so the depth of the formula is not limited 
+     * by the size of the call stack.
+     */
     @Override
     public ClauseSet toCnf() {
-
-        switch (this.mainConnective) {
-            case NOT:
-                Formula f1 = this.getLeftSubformula();
-
-                if (f1 instanceof AtomicFormula) {
-                    Literal l1 = ( (AtomicFormula)f1).toLiteral();
-                    Literal oppL1 = l1.getOpposite();
-
-                    return new ClauseSet( new Clause(oppL1) );    
-                } else {
-                    CompoundFormula cf1 = (CompoundFormula) f1;
-                    Connective mainC = cf1.getMainConnective();
-
-                    if(mainC == Connective.NOT) {
-                        //double negation
-                        Formula g1 = cf1.getLeftSubformula();
-
-                        return g1.toCnf();
-                    } else if(mainC == Connective.OR){ 
-                        //De Morgan on ~(g1 | g2)
-                        Formula g1 = cf1.getLeftSubformula();   
-                        Formula g2 = cf1.getRightSubformula();
-                        Formula g  = new CompoundFormula( Connective.AND, 
-                            new CompoundFormula (Connective.NOT, g1), new CompoundFormula(Connective.NOT, g2));     // ~g1 & ~g2
-                        
-                        return g.toCnf();
-                    } else if (mainC == Connective.AND) {
-                        //De Morgan on ~(g1 & g2)
-                        Formula g1 = cf1.getLeftSubformula();   
-                        Formula g2 = cf1.getRightSubformula();
-                        Formula g = new CompoundFormula(Connective.OR, 
-                            new CompoundFormula(Connective.NOT, g1), new CompoundFormula(Connective.NOT, g2));     // ~g1 | ~g2
-                        
-                        return g.toCnf();
-                    } else if (mainC == Connective.IMPLIES) {
-                        // ~(g1 -> g2)
-                        Formula notG1 = new CompoundFormula(Connective.NOT, cf1.getLeftSubformula());
-                        CompoundFormula or = new CompoundFormula(Connective.OR, notG1, cf1.getRightSubformula());
-
-                        return (new CompoundFormula(Connective.NOT, or)).toCnf();
-                    } else {
-                        // ~(g1 <-> g2)
-                        Formula notG1 = new CompoundFormula(Connective.NOT, cf1.getLeftSubformula());
-                        Formula notG2 = new CompoundFormula(Connective.NOT, cf1.getRightSubformula());
-                        Formula left = new CompoundFormula(Connective.OR, notG1, cf1.getRightSubformula());
-                        Formula right = new CompoundFormula(Connective.OR, cf1.getLeftSubformula(), notG2);
-
-                        Formula iff = new CompoundFormula(Connective.AND, left, right);
-
-                        return (new CompoundFormula(Connective.NOT, iff)).toCnf();
-                    }
-
-                }
-            case IMPLIES:
-                // (g1 -> g2)  ===>  ~g1 | g2
-                Formula notG1 = new CompoundFormula(Connective.NOT, this.getLeftSubformula());
-                CompoundFormula cf = new CompoundFormula(Connective.OR, notG1, this.getRightSubformula());
-
-                return cf.toCnf();
-            case IFF:
-                // (g1 <-> g2)  ===>  (~g1 | g2) & (g1 | ~g2)
-                notG1 = new CompoundFormula(Connective.NOT, this.getLeftSubformula());
-                Formula notG2 = new CompoundFormula(Connective.NOT, this.getRightSubformula());
-                Formula left = new CompoundFormula(Connective.OR, notG1, this.getRightSubformula());
-                Formula right = new CompoundFormula(Connective.OR, this.getLeftSubformula(), notG2);
-
-                return (new CompoundFormula(Connective.AND, left, right)).toCnf();
-            case AND:
-                Formula g1 = this.getLeftSubformula();   
-                Formula g2 = this.getRightSubformula();
-                ClauseSet cs1 = g1.toCnf();
-                ClauseSet cs2 = g2.toCnf();  
-                cs1.union(cs2);
-
-                return cs1;
-            case OR:
-                g1 = this.getLeftSubformula();
-                g2 = this.getRightSubformula();
-
-                cs1 = g1.toCnf();
-                cs2 = g2.toCnf();
-
-                ClauseSet csResult = new ClauseSet();
-
-                for (Clause c1 : cs1) {
-                    for (Clause c2 : cs2) {
-                        csResult.add(Clause.union(c1, c2));
-                    }
-                }
-
-                return csResult;
-        }
-
-        throw new Error("An error occurred while executing the program");
+        return CnfConverter.toCnf(this);
     }
 }
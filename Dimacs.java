@@ -0,0 +1,360 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class without constructors reads and writes sets of clauses
+ * in the DIMACS CNF format, used by most SAT solvers:
+ *
+ *   c a comment
+ *   p cnf 3 2
+ *   1 -3 0
+ *   2 3 -1 0
+ *
+ * Each clause is a list of non-zero integers terminated by 0, where the
+ * variable k is the atom named "k" and -k is its negation.
+ *
+ * The reader maps the file in memory and parses the integers directly from
+ * the bytes, so no String is created for the tokens; only one name is created
+ * for each distinct variable.
+ */
+public class Dimacs {
+
+    //the maximum size of the portion of the file mapped at once
+    private static final long WINDOW = 1L << 30;
+
+    /**
+     * reads a set of clauses in the DIMACS CNF format.
+     *
+     * @param file the path of the file.
+     * @return the set of clauses contained in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not in the DIMACS CNF format.
+     * @throws NullPointerException if file is null.
+     */
+    public static ClauseSet read(Path file) throws IOException {
+        Objects.requireNonNull(file);
+
+        Parser parser = new Parser();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            //a mapped buffer is limited to 2 GB, so large files are mapped in windows
+            for (long pos = 0; pos < size && !parser.isFinished(); pos += WINDOW) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+
+                while (buffer.hasRemaining() && !parser.isFinished()) {
+                    parser.accept(buffer.get());
+                }
+            }
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * writes the specified set of clauses in the DIMACS CNF format.
+     * if the names of all the atoms are positive integers, they are used as the
+     * numbers of the variables. Otherwise the variables are numbered from 1 in order
+     * of appearance, and a comment "c k name" is written for each of them.
+     *
+     * @param s the set of clauses.
+     * @param out the writer where the clauses are written. It is not closed.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if s or out are null.
+     */
+    public static void write(ClauseSet s, Writer out) throws IOException {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(out);
+
+        Map<Integer, Integer> numbers = numbers(s); //variable of the SymbolTable -> DIMACS variable
+        int maxVar = 0;
+        boolean numeric = true;
+
+        for (Map.Entry<Integer, Integer> e : numbers.entrySet()) {
+            maxVar = Math.max(maxVar, e.getValue());
+            numeric &= SymbolTable.getName(e.getKey()).equals(String.valueOf(e.getValue()));
+        }
+
+        if (!numeric) {
+            for (Map.Entry<Integer, Integer> e : numbers.entrySet()) {
+                out.write("c " + e.getValue() + " " + SymbolTable.getName(e.getKey()) + "\n");
+            }
+        }
+
+        out.write("p cnf " + maxVar + " " + s.size() + "\n");
+
+        StringBuilder line = new StringBuilder();
+
+        for (Clause c : s) {
+            line.setLength(0);
+
+            for (int i = 0; i < c.size(); i++) {
+                int code = c.codeAt(i);
+
+                if (SymbolTable.isNegated(code)) line.append('-');
+                line.append(numbers.get(SymbolTable.variable(code))).append(' ');
+            }
+
+            line.append("0\n");
+            out.write(line.toString());
+        }
+
+        out.flush();
+    }
+
+    /**
+     * writes the specified set of clauses in the DIMACS CNF format into a file.
+     *
+     * @param s the set of clauses.
+     * @param file the path of the file, which is created or overwritten.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if s or file are null.
+     */
+    public static void write(ClauseSet s, Path file) throws IOException {
+        Objects.requireNonNull(file);
+
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            write(s, out);
+        }
+    }
+
+    /**
+     * numbers the variables of a set of clauses as write does: with their names, if all of
+     * them are positive integers, otherwise from 1 in order of appearance.
+     *
+     * @param s the set of clauses.
+     * @return the DIMACS number of each variable of the SymbolTable that appears in s,
+     *         in order of appearance.
+     */
+    static Map<Integer, Integer> numbers(ClauseSet s) {
+        Map<Integer, Integer> res = new LinkedHashMap<>();
+        boolean numeric = true;
+
+        for (Clause c : s) {
+            for (int i = 0; i < c.size(); i++) {
+                int v = SymbolTable.variable(c.codeAt(i));
+
+                if (!res.containsKey(v)) {
+                    res.put(v, res.size() + 1);
+                    numeric &= isPositiveInteger(SymbolTable.getName(v));
+                }
+            }
+        }
+
+        if (numeric) {
+            for (Map.Entry<Integer, Integer> e : res.entrySet()) {
+                e.setValue(Integer.parseInt(SymbolTable.getName(e.getKey())));
+            }
+        }
+
+        return res;
+    }
+
+    private static boolean isPositiveInteger(String name) {
+        if (name.length() > 9 || name.charAt(0) == '0') return false;
+
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) < '0' || name.charAt(i) > '9') return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * this class represents the state of the parser, which receives the bytes
+     * of the file one at a time.
+     */
+    private static class Parser {
+
+        //FIELDS
+        private final ClauseSet result;
+        private int[] codes; //the code of the literal of each DIMACS variable, or -1
+        private int[] clause; //the literals of the current clause
+        private int clauseSize;
+
+        private boolean lineStart; //true if the next byte is the first of a line
+        private boolean comment; //true inside a comment line
+        private StringBuilder header; //the "p" line while it is read, or null
+        private boolean finished; //true after the "%" line, which ends the SATLIB files
+
+        private boolean inNumber;
+        private boolean negative;
+        private long value;
+        private long line;
+
+        //CONSTRUCTORS
+
+        public Parser() {
+            this.result = new ClauseSet();
+            this.codes = new int[0];
+            this.clause = new int[8];
+            this.clauseSize = 0;
+            this.lineStart = true;
+            this.comment = false;
+            this.header = null;
+            this.finished = false;
+            this.inNumber = false;
+            this.line = 1;
+        }
+
+        //METHODS
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public void accept(byte b) {
+            if (comment) {
+                if (b == '\n') endLine();
+                return;
+            }
+
+            if (header != null) {
+                if (b == '\n') {
+                    parseHeader(header.toString());
+                    header = null;
+                    endLine();
+                } else {
+                    header.append((char) b);
+                }
+
+                return;
+            }
+
+            if (lineStart) {
+                lineStart = false;
+
+                if (b == 'c') {
+                    comment = true;
+                    return;
+                } else if (b == 'p') {
+                    header = new StringBuilder("p");
+                    return;
+                } else if (b == '%') {
+                    finished = true;
+                    return;
+                }
+            }
+
+            if (b >= '0' && b <= '9') {
+                if (!inNumber) {
+                    inNumber = true;
+                    value = 0;
+                }
+
+                value = 10 * value + (b - '0');
+
+                if (value > Integer.MAX_VALUE / 2) error("variable number too large");
+            } else if (b == '-' && !inNumber && !negative) {
+                negative = true;
+            } else if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                endNumber();
+
+                if (b == '\n') endLine();
+            } else {
+                error("unexpected character '" + (char) b + "'");
+            }
+        }
+
+        /**
+         * @return the set of clauses, after the end of the file.
+         */
+        public ClauseSet finish() {
+            if (header != null) parseHeader(header.toString());
+
+            endNumber();
+
+            //the last clause can be without the final 0
+            if (clauseSize > 0) endClause();
+
+            return result;
+        }
+
+        private void endLine() {
+            comment = false;
+            lineStart = true;
+            line++;
+        }
+
+        private void endNumber() {
+            if (!inNumber) {
+                if (negative) error("'-' without a number");
+                return;
+            }
+
+            if (value == 0) {
+                endClause();
+            } else {
+                addLiteral((int) value, negative);
+            }
+
+            inNumber = false;
+            negative = false;
+        }
+
+        private void addLiteral(int var, boolean negated) {
+            if (var >= codes.length) {
+                int old = codes.length;
+                codes = Arrays.copyOf(codes, Math.max(var + 1, 2 * old));
+                Arrays.fill(codes, old, codes.length, -1);
+            }
+
+            if (codes[var] == -1) {
+                codes[var] = SymbolTable.encode(SymbolTable.intern(String.valueOf(var)), false);
+            }
+
+            if (clauseSize == clause.length) {
+                clause = Arrays.copyOf(clause, 2 * clauseSize);
+            }
+
+            clause[clauseSize++] = negated ? SymbolTable.opposite(codes[var]) : codes[var];
+        }
+
+        private void endClause() {
+            //the literals of a Clause are sorted and without duplicates
+            Arrays.sort(clause, 0, clauseSize);
+            int k = 0;
+
+            for (int i = 0; i < clauseSize; i++) {
+                if (k == 0 || clause[k - 1] != clause[i]) {
+                    clause[k++] = clause[i];
+                }
+            }
+
+            result.add(new Clause(Arrays.copyOf(clause, k), k));
+            clauseSize = 0;
+        }
+
+        private void parseHeader(String text) {
+            String[] tokens = text.trim().split("\\s+");
+
+            if (tokens.length != 4 || !tokens[0].equals("p") || !tokens[1].equals("cnf")) {
+                error("the problem line must be \"p cnf <variables> <clauses>\"");
+            }
+
+            //the codes are not allocated for the declared variables, which can be many more
+            //than the ones used: they grow with the greatest variable read (see addLiteral)
+            try {
+                Integer.parseInt(tokens[2]);
+            } catch (NumberFormatException e) {
+                error("the number of variables is not valid");
+            }
+        }
+
+        private void error(String message) {
+            throw new IllegalArgumentException("line " + line + ": " + message);
+        }
+    }
+}
@@ -10,4 +10,16 @@ public abstract class Formula {
      * @return the clauseset representing this formula converted to CNF.
      */
     public abstract ClauseSet toCnf();
+
+    /**
+     * converts this formula to an equisatisfiable conjunctive normal form, with the 
+     * Tseitin encoding (see {@link Tseitin}). The result contains new atoms, and its 
+     * size is linear in the size of the formula. The new atoms are created by each
+     * conversion, so the results of two conversions can be joined.
+     * 
+     * @return the clauseset that is satisfiable if and only if this formula is satisfiable.
+     */
+    public ClauseSet toTseitinCnf() {
+        return Tseitin.toCnf(this);
+    }
 }
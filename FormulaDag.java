@@ -0,0 +1,229 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class represents a formula as a directed acyclic graph, in which
+ * the identical subformulas are represented by the same node (hash-consing).
+ *
+ * The nodes are numbered in post-order, so the children of a node always have
+ * smaller numbers and the whole formula is the last node. In this way the
+ * conversions can visit the nodes with a simple loop, without recursion,
+ * and each subformula is converted only once.
+ * The graph is built with an explicit stack, so the depth of the formula
+ * is not limited by the size of the call stack.
+ */
+public class FormulaDag {
+
+    //the polarities of a node, used as bits
+    public static final int POSITIVE = 1;
+    public static final int NEGATIVE = 2;
+
+    //the maximum number of nodes, so that a node can be packed in 30 bits of the keys
+    private static final int MAX_NODES = 1 << 30;
+
+    //FIELDS
+    private Connective[] connectives; //the main connective of each node, null for the atoms
+    private int[] left; //the left (or only) child of each node, -1 for the atoms
+    private int[] right; //the right child of each node, -1 for the atoms and the negations
+    private int[] atoms; //the code of the literal of each atom, -1 for the compound nodes
+    private int size;
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs the graph of the specified formula.
+     *
+     * @param f the formula.
+     * @throws NullPointerException if f is null.
+     * @throws IllegalArgumentException if the formula has more than 2^30 distinct subformulas.
+     */
+    public FormulaDag(Formula f) {
+        Objects.requireNonNull(f);
+
+        this.connectives = new Connective[16];
+        this.left = new int[16];
+        this.right = new int[16];
+        this.atoms = new int[16];
+        this.size = 0;
+
+        Map<Formula, Integer> ids = new IdentityHashMap<>(); //the node of each visited object
+        Map<Long, Integer> nodes = new HashMap<>(); //the node of each distinct subformula
+        Deque<Formula> stack = new ArrayDeque<>();
+        stack.push(f);
+
+        while (!stack.isEmpty()) {
+            Formula g = stack.peek();
+
+            if (ids.containsKey(g)) {
+                //the same object is reachable from more than one parent
+                stack.pop();
+                continue;
+            }
+
+            if (g instanceof AtomicFormula) {
+                int code = ((AtomicFormula) g).toLiteral().getCode();
+                ids.put(g, node(nodes, key(Connective.values().length, code, 0), null, -1, -1, code));
+                stack.pop();
+                continue;
+            }
+
+            CompoundFormula cf = (CompoundFormula) g;
+            Formula[] subs = cf.getSubformulas();
+            boolean ready = true;
+
+            //the children are visited before the node
+            for (int i = subs.length - 1; i >= 0; i--) {
+                if (!ids.containsKey(subs[i])) {
+                    stack.push(subs[i]);
+                    ready = false;
+                }
+            }
+
+            if (ready) {
+                int l = ids.get(subs[0]);
+                int r = (subs.length > 1) ? ids.get(subs[1]) : -1;
+                Connective op = cf.getMainConnective();
+
+                ids.put(g, node(nodes, key(op.ordinal(), l, r + 1), op, l, r, -1));
+                stack.pop();
+            }
+        }
+    }
+
+    //METHODS
+
+    /**
+     * @return the number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the node of the whole formula.
+     */
+    public int root() {
+        return size - 1;
+    }
+
+    /**
+     * @param n a node.
+     * @return true, if the node is an atom.
+     */
+    public boolean isAtom(int n) {
+        return connectives[n] == null;
+    }
+
+    /**
+     * @param n a compound node.
+     * @return the main connective of the node.
+     */
+    public Connective getConnective(int n) {
+        return connectives[n];
+    }
+
+    /**
+     * @param n a compound node.
+     * @return the left subformula, or the only one for the negations.
+     */
+    public int getLeft(int n) {
+        return left[n];
+    }
+
+    /**
+     * @param n a node with a binary connective.
+     * @return the right subformula.
+     */
+    public int getRight(int n) {
+        return right[n];
+    }
+
+    /**
+     * @param n an atom.
+     * @return the code of the literal of the atom.
+     */
+    public int getAtom(int n) {
+        return atoms[n];
+    }
+
+    /**
+     * computes the polarities with which each node occurs in the formula:
+     * POSITIVE if it occurs under an even number of negations, NEGATIVE if it occurs
+     * under an odd number, both if it occurs in both ways or under an IFF.
+     * The left side of an implication counts as a negation.
+     *
+     * @return the polarities of each node, as an OR of POSITIVE and NEGATIVE.
+     */
+    public int[] polarities() {
+        int[] res = new int[size];
+        res[root()] = POSITIVE;
+
+        //the parents have greater numbers than their children
+        for (int n = root(); n >= 0; n--) {
+            if (isAtom(n) || res[n] == 0) continue;
+
+            int p = res[n];
+            int opposite = ((p & POSITIVE) != 0 ? NEGATIVE : 0) | ((p & NEGATIVE) != 0 ? POSITIVE : 0);
+
+            switch (connectives[n]) {
+                case NOT:
+                    res[left[n]] |= opposite;
+                    break;
+                case AND:
+                case OR:
+                    res[left[n]] |= p;
+                    res[right[n]] |= p;
+                    break;
+                case IMPLIES:
+                    res[left[n]] |= opposite;
+                    res[right[n]] |= p;
+                    break;
+                case IFF:
+                    res[left[n]] |= POSITIVE | NEGATIVE;
+                    res[right[n]] |= POSITIVE | NEGATIVE;
+                    break;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * packs the connective and the two children in a single key.
+     */
+    private static long key(int op, int a, int b) {
+        return ((long) op << 60) | ((long) a << 30) | b;
+    }
+
+    /**
+     * returns the node with the specified key, creating it if it does not exist yet.
+     */
+    private int node(Map<Long, Integer> nodes, long key, Connective op, int l, int r, int atom) {
+        Integer n = nodes.get(key);
+        if (n != null) return n;
+
+        if (size == MAX_NODES - 1) {
+            throw new IllegalArgumentException("the formula has too many distinct subformulas");
+        }
+
+        if (size == connectives.length) {
+            connectives = Arrays.copyOf(connectives, 2 * size);
+            left = Arrays.copyOf(left, 2 * size);
+            right = Arrays.copyOf(right, 2 * size);
+            atoms = Arrays.copyOf(atoms, 2 * size);
+        }
+
+        connectives[size] = op;
+        left[size] = l;
+        right[size] = r;
+        atoms[size] = atom;
+        nodes.put(key, size);
+
+        return size++;
+    }
+}
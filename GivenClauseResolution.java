@@ -0,0 +1,386 @@
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * This class implements the resolution method with
+ * the given-clause loop (as in the Otter and DISCOUNT provers).
+ *
+ * The clauses are divided into processed and unprocessed ones. At each iteration
+ * the next "given" clause is chosen among the unprocessed ones by a heuristic,
+ * it is resolved against all the processed clauses, and then it becomes processed.
+ * The new resolvents become unprocessed. In this way each pair of clauses is
+ * considered only once, and short clauses can be processed before the long ones.
+ * 
+ * A resolvent subsumed by a processed or unprocessed clause is discarded, and the
+ * clauses subsumed by a new resolvent are removed.
+ *
+ * The pairs of clauses resolved can be restricted by a strategy (see {@link ResolutionStrategy}),
+ * given a subset of the clauses called the set of support, such as the negation of the goal
+ * to prove from a consistent theory:
+ *
+ * - SET_OF_SUPPORT: at the beginning only the clauses of the support are unprocessed, while
+ *   the others are processed, so every resolution has a premise derived from the support.
+ *   It is complete if the clauses outside the support are satisfiable.
+ * - INPUT: the given clauses, which are derived from the support, are resolved only with the
+ *   clauses in input (after the preprocessing), so every resolvent is the end of a linear chain
+ *   of resolutions with the clauses in input. It is complete only for Horn clauses (at most one
+ *   positive literal) whose clauses outside the support are satisfiable, so for the other sets
+ *   the result is UNKNOWN instead of SATISFIABLE, with the stop reason INCOMPLETE.
+ *
+ * A clause derived by the preprocessing is in the support if one of its premises is.
+ *
+ * Each instance works on its own copy of the set, with its own indexes and trace,
+ * so many instances can run at the same time on different threads.
+ */
+public class GivenClauseResolution extends AbstractResolution {
+
+    //the number of clauses chosen by weight for each clause chosen by age, in AGE_WEIGHT.
+    private static final int PICK_GIVEN_RATIO = 4;
+
+    //FIELDS
+    private final SelectionHeuristic heuristic;
+    private final ResolutionStrategy strategy;
+    private final ClauseSet support; //the clauses of the set of support, hashed by content
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new solver for the specified set of clauses, without trace.
+     * The set is not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param heuristic the heuristic used to choose the given clause.
+     * @throws NullPointerException if s or heuristic are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public GivenClauseResolution(ClauseSet s, SelectionHeuristic heuristic) {
+        this(s, heuristic, new Trace());
+    }
+
+    /**
+     * Constructs a new solver for the specified set of clauses.
+     * The set is not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param heuristic the heuristic used to choose the given clause.
+     * @param trace the trace where the steps of each search are recorded.
+     * @throws NullPointerException if s, heuristic or trace are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public GivenClauseResolution(ClauseSet s, SelectionHeuristic heuristic, Trace trace) {
+        this(s, heuristic, trace, ResolutionStrategy.SATURATION, s);
+    }
+
+    /**
+     * Constructs a new solver for the specified set of clauses, which resolves only
+     * the pairs of clauses allowed by the strategy. The sets are not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param heuristic the heuristic used to choose the given clause.
+     * @param trace the trace where the steps of each search are recorded.
+     * @param strategy the strategy that restricts the pairs of clauses resolved.
+     * @param support the set of support: clauses of s, or clauses from which the clauses of s
+     *        have been derived, such as the set in input of a {@link VariableElimination} whose
+     *        backend is this solver. A clause of s is in the set of support if it is in support
+     *        or it is derived from one of them. The other clauses of s must be satisfiable,
+     *        otherwise an unsatisfiable set can be reported as satisfiable.
+     *        It is not used by SATURATION.
+     * @throws NullPointerException if an argument is null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public GivenClauseResolution(ClauseSet s, SelectionHeuristic heuristic, Trace trace,
+            ResolutionStrategy strategy, ClauseSet support) {
+        super(s, trace);
+        Objects.requireNonNull(heuristic);
+        Objects.requireNonNull(strategy);
+        Objects.requireNonNull(support);
+
+        this.heuristic = heuristic;
+        this.strategy = strategy;
+        this.support = support.copy();
+    }
+
+    //STATIC METHODS
+
+    /**
+     * This static method checks whether a set of clauses
+     * is satisfiable or not.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param enableSteps the boolean variable used to indicate whether
+     *        or not to print the list of steps applied by the resolution method.
+     * @param heuristic the heuristic used to choose the given clause.
+     *
+     * @return true, if s is satisfiable, false otherwise.
+     * @throws NullPointerException if s or heuristic are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public static boolean isSatisfiable(ClauseSet s, boolean enableSteps, SelectionHeuristic heuristic) {
+        Trace trace = new Trace(enableSteps ? Trace.Mode.FULL : Trace.Mode.OFF);
+        GivenClauseResolution solver = new GivenClauseResolution(s, heuristic, trace);
+        boolean res = solver.isSatisfiable();
+
+        if (enableSteps) solver.printTrace();
+
+        return res;
+    }
+
+    //METHODS
+
+    /**
+     * applies the given-clause loop to the specified clauses, which are modified.
+     * The index of a clause is also its age.
+     *
+     * @param s the clauses.
+     * @param meter the meter of the budget of the search.
+     * @return the result, UNKNOWN if the budget is exhausted.
+     */
+    @Override
+    protected Result saturate(ClauseSet s, Budget.Meter meter) {
+        ClauseSet known = new ClauseSet(); //the processed and unprocessed clauses, hashed by content
+        OccurrenceIndex processed = new OccurrenceIndex();
+        OccurrenceIndex kept = new OccurrenceIndex(); //the processed and unprocessed clauses, for subsumption
+        Set<Integer> processedVars = new HashSet<>(); //the variables of the processed clauses
+        Unprocessed unprocessed = new Unprocessed(heuristic, processedVars);
+
+        //the index from which the subsumed clauses are also removed:
+        //with INPUT a clause in input is still resolved with the given clauses
+        OccurrenceIndex subsumable = (strategy != ResolutionStrategy.INPUT) ? processed : null;
+
+        Map<Clause, Boolean> inSupport = (strategy != ResolutionStrategy.SATURATION) ? findSupport(s) : null;
+
+        for (Clause c : s) {
+            retain(c, known, kept);
+
+            //with INPUT the clauses in input are the only processed ones, and they are never given
+            if (strategy == ResolutionStrategy.INPUT) processed.add(c);
+
+            if (strategy == ResolutionStrategy.SATURATION || inSupport.get(c)) {
+                unprocessed.add(c);
+            } else if (strategy == ResolutionStrategy.SET_OF_SUPPORT) {
+                processed.add(c);
+                addVariables(processedVars, c);
+            }
+        }
+
+        while (!unprocessed.isEmpty()) {
+
+            Clause given = unprocessed.poll();
+
+            if (kept.isRemoved(given)) continue; //given is subsumed by a clause derived later
+
+            processed.purge();
+            kept.purge();
+
+            Set<Clause> partners = new HashSet<>(); //the processed clauses already resolved with given
+
+            nextLiteral:
+            for (int k = 0; k < given.size(); k++) {
+
+                int pivot = given.codeAt(k);
+                List<Clause> candidates = processed.get(SymbolTable.opposite(pivot));
+
+                for (Clause c2 : candidates) {
+
+                    if (!processed.isRemoved(c2) && partners.add(c2)) {
+
+                        Clause newClause = resolve(given, c2, pivot, meter);
+
+                        if (empty != null) return Result.UNSATISFIABLE;
+
+                        if (stopReason != null) return Result.UNKNOWN;
+
+                        if (newClause == null || !admit(newClause, known, kept, subsumable)) continue;
+
+                        unprocessed.add(newClause);
+
+                        //the new clause is stronger than given, so given is not processed
+                        if (kept.isRemoved(given)) break nextLiteral;
+                    }
+                }
+            }
+
+            if (kept.isRemoved(given)) continue;
+
+            if (strategy != ResolutionStrategy.INPUT) processed.add(given);
+
+            addVariables(processedVars, given);
+        }
+
+        //the input resolution can miss the refutation of a set that is not Horn
+        if (strategy == ResolutionStrategy.INPUT && !isHorn(s)) {
+            stopReason = StopReason.INCOMPLETE;
+            return Result.UNKNOWN;
+        }
+
+        /*
+         * if every clause has been processed and the contradiction
+         * is not found, then s is satisfiable
+         */
+        return Result.SATISFIABLE;
+    }
+
+    /**
+     * finds the clauses of s in the set of support: the clauses of the support,
+     * and the clauses derived by the preprocessing, or before the construction of this
+     * solver, from at least one of them.
+     *
+     * @return for each clause of s, whether it is in the set of support.
+     */
+    private Map<Clause, Boolean> findSupport(ClauseSet s) {
+        //a clause is done after its premises, as in Refutation
+        Map<Clause, Boolean> res = new IdentityHashMap<>();
+        Deque<Clause> toVisit = new ArrayDeque<>();
+
+        for (Clause c : s) {
+            toVisit.push(c);
+
+            while (!toVisit.isEmpty()) {
+                Clause d = toVisit.peek();
+
+                if (res.containsKey(d)) {
+                    toVisit.pop();
+                } else if (d.getParent1() == null || support.contains(d)) {
+                    toVisit.pop();
+                    res.put(d, support.contains(d));
+                } else if (!res.containsKey(d.getParent1())) {
+                    toVisit.push(d.getParent1());
+                } else if (!res.containsKey(d.getParent2())) {
+                    toVisit.push(d.getParent2());
+                } else {
+                    toVisit.pop();
+                    res.put(d, res.get(d.getParent1()) || res.get(d.getParent2()));
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * @return true, if every clause of s has at most one positive literal.
+     */
+    private static boolean isHorn(ClauseSet s) {
+        for (Clause c : s) {
+            int positive = 0;
+
+            for (int k = 0; k < c.size(); k++) {
+                if (!SymbolTable.isNegated(c.codeAt(k))) positive++;
+            }
+
+            if (positive > 1) return false;
+        }
+
+        return true;
+    }
+
+    private static void addVariables(Set<Integer> vars, Clause c) {
+        for (int k = 0; k < c.size(); k++) {
+            vars.add(SymbolTable.variable(c.codeAt(k)));
+        }
+    }
+
+    /**
+     * this class represents the unprocessed clauses, ordered by the selection heuristic.
+     */
+    private static class Unprocessed {
+
+        //FIELDS
+        private final Set<Integer> processedVars;
+        private final Map<Integer, Integer> fresh; //clause index -> fresh variables, used only by FEWEST_FRESH_VARIABLES
+        private final PriorityQueue<Clause> byWeight;
+        private final PriorityQueue<Clause> byAge; //used only by AGE_WEIGHT
+        private final Set<Clause> selected; //the clauses returned by one queue, still present in the other
+        private int remaining;
+        private int picks;
+
+        //CONSTRUCTORS
+
+        public Unprocessed(SelectionHeuristic heuristic, Set<Integer> processedVars) {
+            this.processedVars = processedVars;
+            this.selected = new HashSet<>();
+            this.remaining = 0;
+            this.picks = 0;
+
+            Comparator<Clause> byAgeCmp = Comparator.comparingInt(Clause::getIndex);
+            Comparator<Clause> bySizeCmp = Comparator.comparingInt(Clause::size);
+
+            if (heuristic == SelectionHeuristic.FEWEST_FRESH_VARIABLES) {
+                //the number of fresh variables is computed when the clause is generated
+                this.fresh = new HashMap<>();
+                Comparator<Clause> byFreshCmp = Comparator.comparingInt(c -> fresh.get(c.getIndex()));
+                this.byWeight = new PriorityQueue<>(byFreshCmp.thenComparing(bySizeCmp).thenComparing(byAgeCmp));
+            } else {
+                this.fresh = null;
+                this.byWeight = new PriorityQueue<>(bySizeCmp.thenComparing(byAgeCmp));
+            }
+
+            this.byAge = (heuristic == SelectionHeuristic.AGE_WEIGHT) ? new PriorityQueue<>(byAgeCmp) : null;
+        }
+
+        //METHODS
+
+        public void add(Clause c) {
+            if (fresh != null) {
+                int count = 0;
+
+                for (int k = 0; k < c.size(); k++) {
+                    if (!processedVars.contains(SymbolTable.variable(c.codeAt(k)))) count++;
+                }
+
+                fresh.put(c.getIndex(), count);
+            }
+
+            byWeight.add(c);
+
+            if (byAge != null) {
+                byAge.add(c);
+            }
+
+            remaining++;
+        }
+
+        public boolean isEmpty() {
+            return remaining == 0;
+        }
+
+        /**
+         * removes and returns the next given clause.
+         * with AGE_WEIGHT, one clause out of PICK_GIVEN_RATIO + 1 is the oldest one.
+         */
+        public Clause poll() {
+            picks++;
+
+            boolean pickByAge = (byAge != null) && (picks % (PICK_GIVEN_RATIO + 1) == 0);
+            PriorityQueue<Clause> queue = pickByAge ? byAge : byWeight;
+
+            Clause c = queue.poll();
+
+            //a clause already returned by the other queue is removed lazily
+            while (selected.remove(c)) {
+                c = queue.poll();
+            }
+
+            if (byAge != null) {
+                selected.add(c);
+            }
+
+            if (fresh != null) {
+                fresh.remove(c.getIndex());
+            }
+
+            remaining--;
+
+            return c;
+        }
+    }
+}
@@ -3,30 +3,61 @@ import java.util.Objects;
 /**
  * This abstract class represents a literal in propositional logic,
  * which can be an atom or a negated atom.
+ * 
+ * The name of the atom is interned in the {@link SymbolTable}, and the literal
+ * is identified by its integer code, so comparing two literals does not
+ * require any string comparison.
  */
 public abstract class Literal {
 
     //FIELDS
-    private final String name;
+    private final int code; //the code of the literal, see SymbolTable
 
     //CONSTRUCTORS
 
     /**
      * @param name the name of literal
+     * @param negated true if the literal is a negated atom
      * @throws NullPointerException if the "name" parameter is null
-     * @throws IllegalArgumentException if the "name" parameter is a empty string.
+     * @throws IllegalArgumentException if the "name" parameter is a empty string,
+     * or it starts with "$", which is reserved to the auxiliary atoms (see {@link SymbolTable#auxiliary}).
      * 
      * this constructor is used by the subclasses to instantiate the literal, 
      * with the name given as a parameter.
      */
-    protected Literal(String name) {
+    protected Literal(String name, boolean negated) {
         Objects.requireNonNull(name);
 
         if (name.equals("")) {
             throw new IllegalArgumentException("the name cannot be empty");
         }
         
-        this.name = name;
+        this.code = SymbolTable.encode(SymbolTable.intern(name), negated);
+    }
+
+    /**
+     * @param code the code of the literal, already interned in the SymbolTable.
+     * 
+     * this constructor is used by the subclasses to build a view of a literal
+     * that is already encoded.
+     */
+    protected Literal(int code) {
+        this.code = code;
+    }
+
+    //STATIC METHODS
+
+    /**
+     * 
+     * @param code the code of a literal.
+     * @return the Atom or the NegAtom instance represented by the code.
+     */
+    public static Literal fromCode(int code) {
+        if (SymbolTable.isNegated(code)) {
+            return new NegAtom(code);
+        }
+
+        return new Atom(code);
     }
 
     //METHODS
@@ -35,7 +66,24 @@ public abstract class Literal {
      * @return the name of this literal.
      */
     public String getName() {
-        return name;
+        return SymbolTable.getName(SymbolTable.variable(code));
+    }
+
+    /**
+     * @return the code of this literal.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 
+     * @param l the literal to compare with this literal.
+     * @return true, if l is the opposite of this literal.
+     * @throws NullPointerException if l is null.
+     */
+    public boolean isOpposite(Literal l) {
+        return (this.code ^ l.code) == 1;
     }
 
     /**
@@ -46,6 +94,6 @@ public abstract class Literal {
 
     @Override
     public int hashCode() {
-        return 1;
+        return code;
     }
-}
\ No newline at end of file
+}
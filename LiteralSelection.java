@@ -0,0 +1,30 @@
+/**
+ * This enumeration represents the selection functions of the ordered resolution:
+ * the negative literals selected in a clause are the only ones that can be resolved
+ * upon, instead of its greatest literal.
+ */
+public enum LiteralSelection {
+    NONE,               //no literal is selected
+    MAXIMAL_NEGATIVE,   //the negative literal with the greatest atom
+    ALL_NEGATIVE;       //all the negative literals
+
+
+    @Override
+    public String toString() {
+        String res = "";
+
+        switch (this) {
+            case NONE:
+                res = "none";
+                break;
+            case MAXIMAL_NEGATIVE:
+                res = "maxneg";
+                break;
+            case ALL_NEGATIVE:
+                res = "allneg";
+                break;
+        }
+
+        return res;
+    }
+}
@@ -11,18 +11,25 @@ public class NegAtom extends Literal{
      * @param name the name of negated atom.
      */
     public NegAtom(String name) {
-        super(name);
+        super(name, true);
+    }
+
+    /**
+     * @param code the code of the negated atom, already interned in the SymbolTable.
+     */
+    NegAtom(int code) {
+        super(code);
     }
     
     //METHODS
 
     @Override
     public Literal getOpposite() {
-        return new Atom(this.getName());
+        return new Atom(SymbolTable.opposite(this.getCode()));
     }
 
     private boolean equals(NegAtom natm) {
-        return this.getName().equals(natm.getName());
+        return this.getCode() == natm.getCode();
     }
 
     @Override
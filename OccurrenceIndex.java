@@ -0,0 +1,196 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * this class represents an occurrence index, which maps each literal
+ * to the list of clauses that contain it.
+ * The lists are indexed by the code of the literal (see {@link SymbolTable}),
+ * and the clauses appear in the order in which they have been added.
+ * 
+ * The removal of a clause is lazy: the clause is only marked as removed, so that
+ * the lists can be scanned by position while clauses are removed. The marked
+ * clauses are deleted from the lists by the purge method, which scans only the lists
+ * of the literals of the clauses removed since the last purge, and then forgets them.
+ * The removal is also recorded in the clause itself, so isRemoved reports it even
+ * after the purge. The removed clauses are compared by identity, so a clause added
+ * after the removal of an equal one is not reported as removed.
+ *
+ * Only add, remove and purge modify the index: the queries never create a list,
+ * so many threads can query an index that is not being modified.
+ */
+public class OccurrenceIndex {
+
+    //FIELDS
+    private List<List<Clause>> occurrences; //the list in position "code" contains the clauses with that literal
+    private Set<Clause> removed; //the clauses removed since the last purge, compared by identity
+    private BitSet dirty; //the codes whose lists may still contain removed clauses
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new, empty occurrence index.
+     */
+    public OccurrenceIndex() {
+        this.occurrences = new ArrayList<>();
+        this.removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.dirty = new BitSet();
+    }
+
+    //METHODS
+
+    /**
+     * adds the specified clause to the lists of all its literals.
+     *
+     * @param c the clause to be added to the index.
+     * @throws NullPointerException if the clause is null.
+     */
+    public void add(Clause c) {
+        Objects.requireNonNull(c);
+
+        for (int i = 0; i < c.size(); i++) {
+            listOf(c.codeAt(i)).add(c);
+        }
+    }
+
+    /**
+     * marks the specified clause as removed. The clause remains in the lists
+     * until the next call of purge, but it is ignored by the subsumption queries.
+     *
+     * @param c the clause to be removed from the index.
+     * @throws NullPointerException if the clause is null.
+     */
+    public void remove(Clause c) {
+        Objects.requireNonNull(c);
+        c.setRemoved();
+        this.removed.add(c);
+
+        for (int i = 0; i < c.size(); i++) {
+            this.dirty.set(c.codeAt(i));
+        }
+    }
+
+    /**
+     *
+     * @param c a clause of the index.
+     * @return true, if this very clause has been removed, even if it has been purged.
+     */
+    public boolean isRemoved(Clause c) {
+        return c.isRemoved();
+    }
+
+    /**
+     * deletes from the lists the clauses marked as removed.
+     * It must not be called while a list returned by get is being scanned.
+     */
+    public void purge() {
+        if (dirty.isEmpty()) return;
+
+        for (int code = dirty.nextSetBit(0); code >= 0; code = dirty.nextSetBit(code + 1)) {
+            if (code < occurrences.size()) occurrences.get(code).removeIf(removed::contains);
+        }
+
+        //every list of a removed clause has been scanned, so the clauses are not needed any more
+        removed.clear();
+        dirty.clear();
+    }
+
+    /**
+     * forward subsumption: searches a clause of the index that subsumes the specified clause.
+     *
+     * @param c the clause to check.
+     * @return a clause that subsumes c, or null if there is not any.
+     * @throws NullPointerException if the clause is null.
+     */
+    public Clause findSubsuming(Clause c) {
+        //a clause that subsumes c contains at least one of its literals
+        for (int i = 0; i < c.size(); i++) {
+            for (Clause d : lookup(c.codeAt(i))) {
+                if (d.subsumes(c) && !removed.contains(d)) return d;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * backward subsumption: searches the clauses of the index subsumed by the specified clause.
+     *
+     * @param c the clause to check.
+     * @return the list of the clauses subsumed by c, except c itself.
+     * @throws NullPointerException if the clause is null.
+     */
+    public List<Clause> findSubsumed(Clause c) {
+        List<Clause> res = new ArrayList<>();
+
+        if (c.isEmpty()) return res;
+
+        //a clause subsumed by c contains all its literals, so the shortest list is enough
+        int best = c.codeAt(0);
+
+        for (int i = 1; i < c.size(); i++) {
+            if (count(c.codeAt(i)) < count(best)) best = c.codeAt(i);
+        }
+
+        for (Clause d : lookup(best)) {
+            if (d != c && c.subsumes(d) && !removed.contains(d)) res.add(d);
+        }
+
+        return res;
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return a read-only view of the clauses that contain the literal, including the
+     *         removed ones until the next purge. The view is not a copy: it grows when
+     *         new clauses containing the literal are added to the index.
+     */
+    public List<Clause> get(int code) {
+        //the list is looked up at each access, because it may be created after the view
+        return new AbstractList<Clause>() {
+            @Override
+            public Clause get(int index) {
+                return lookup(code).get(index);
+            }
+
+            @Override
+            public int size() {
+                return count(code);
+            }
+        };
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return the number of clauses that contain the literal.
+     */
+    public int count(int code) {
+        return (code < occurrences.size()) ? occurrences.get(code).size() : 0;
+    }
+
+    /**
+     * returns the list of the specified literal, or an empty list if it does not exist yet.
+     */
+    private List<Clause> lookup(int code) {
+        return (code < occurrences.size()) ? occurrences.get(code) : Collections.emptyList();
+    }
+
+    /**
+     * returns the list of the specified literal, creating it if it does not exist yet.
+     * it is used only by add.
+     */
+    private List<Clause> listOf(int code) {
+        while (occurrences.size() <= code) {
+            occurrences.add(new ArrayList<>());
+        }
+
+        return occurrences.get(code);
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.Arrays;
+
+/**
+ * this class represents a set of unordered pairs of clause indexes, used by the solvers
+ * to remember the pairs of clauses already resolved. The indexes are never boxed.
+ *
+ * While the indexes are few, or most of their pairs are in the set, the pairs are the
+ * bits of a triangular bitset: the pair (i, j) with i < j is the bit j * (j - 1) / 2 + i,
+ * so the pairs of the index j follow the ones of the smaller indexes and the bitset grows
+ * with the greatest index. When the bitset would take more than SPARSE_BITS_PER_PAIR bits
+ * for each pair in the set, the pairs are moved to an open-addressing hash set of longs,
+ * where each pair is the long (j << 32) | i, and they stay there until the set is cleared.
+ */
+public class PairSet {
+
+    //STATIC FIELDS
+    private static final long DENSE_MIN_BITS = 1L << 20; //below this size the bitset is always used
+    private static final long DENSE_MAX_BITS = 1L << 32; //above this size the hash set is always used
+    private static final long SPARSE_BITS_PER_PAIR = 128; //the bits of a pair in the hash set, half full
+    private static final int SPARSE_INITIAL_CAPACITY = 1 << 10;
+
+    //FIELDS
+    private long[] words; //the triangular bitset, or null if the hash set is used
+    private long[] keys; //the hash set, with 0 in the empty slots, or null if the bitset is used
+    private long size; //the number of pairs in the set
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new, empty set of pairs.
+     */
+    public PairSet() {
+        this.words = new long[0];
+        this.keys = null;
+        this.size = 0;
+    }
+
+    //METHODS
+
+    /**
+     * adds the pair of the specified indexes, in any order.
+     *
+     * @param i the first index.
+     * @param j the second index.
+     * @return true, if the pair was not in the set. false, otherwise.
+     * @throws IllegalArgumentException if an index is negative or the indexes are equal.
+     */
+    public boolean add(int i, int j) {
+        check(i, j);
+
+        int lo = Math.min(i, j);
+        int hi = Math.max(i, j);
+
+        if (words != null && position(lo, hi) >= 64L * words.length) grow(hi);
+
+        boolean res = (words != null) ? setBit(position(lo, hi)) : addKey(key(lo, hi));
+
+        if (res) size++;
+
+        return res;
+    }
+
+    /**
+     * @param i the first index.
+     * @param j the second index.
+     * @return true, if the pair of the specified indexes, in any order, is in the set.
+     * @throws IllegalArgumentException if an index is negative or the indexes are equal.
+     */
+    public boolean contains(int i, int j) {
+        check(i, j);
+
+        int lo = Math.min(i, j);
+        int hi = Math.max(i, j);
+
+        if (words != null) {
+            long bit = position(lo, hi);
+
+            return bit < 64L * words.length && (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+        }
+
+        return findKey(key(lo, hi)) >= 0;
+    }
+
+    /**
+     * @return the number of pairs in the set.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * removes all the pairs, and releases the memory used by them.
+     */
+    public void clear() {
+        words = new long[0];
+        keys = null;
+        size = 0;
+    }
+
+    private static void check(int i, int j) {
+        if (i < 0 || j < 0) throw new IllegalArgumentException("the indexes must not be negative");
+        if (i == j) throw new IllegalArgumentException("a pair must have two different indexes");
+    }
+
+    /**
+     * @return the position of the pair (lo, hi) in the triangular bitset.
+     */
+    private static long position(int lo, int hi) {
+        return (long) hi * (hi - 1) / 2 + lo;
+    }
+
+    private static long key(int lo, int hi) {
+        //hi is at least 1, so no key is 0
+        return ((long) hi << 32) | lo;
+    }
+
+    /**
+     * enlarges the bitset to contain the pairs of the index hi, or moves the pairs
+     * to the hash set if the bitset would be too sparse.
+     */
+    private void grow(int hi) {
+        long bits = (long) (hi + 1) * hi / 2;
+
+        if (bits > DENSE_MAX_BITS || (bits > DENSE_MIN_BITS && bits > SPARSE_BITS_PER_PAIR * (size + 1))) {
+            toSparse();
+            return;
+        }
+
+        long length = Math.max(2L * words.length, (bits + 63) / 64);
+
+        words = Arrays.copyOf(words, (int) Math.min(length, DENSE_MAX_BITS / 64));
+    }
+
+    private boolean setBit(long bit) {
+        int w = (int) (bit >>> 6);
+        long mask = 1L << bit;
+
+        if ((words[w] & mask) != 0) return false;
+
+        words[w] |= mask;
+
+        return true;
+    }
+
+    /**
+     * moves the pairs of the bitset to the hash set.
+     */
+    private void toSparse() {
+        long[] old = words;
+
+        words = null;
+        keys = new long[Math.max(SPARSE_INITIAL_CAPACITY, Integer.highestOneBit((int) Math.min(size, 1 << 28)) * 4)];
+
+        int hi = 1; //the pairs of the index hi start at the position hi * (hi - 1) / 2
+
+        for (int w = 0; w < old.length; w++) {
+            for (long bits = old[w]; bits != 0; bits &= bits - 1) {
+                long bit = 64L * w + Long.numberOfTrailingZeros(bits);
+
+                while (position(0, hi + 1) <= bit) hi++;
+
+                insertKey(key((int) (bit - position(0, hi)), hi));
+            }
+        }
+    }
+
+    private boolean addKey(long key) {
+        if (findKey(key) >= 0) return false;
+
+        //the table is kept at most half full, so the probes are short
+        if (2 * (size + 1) > keys.length) rehash();
+
+        insertKey(key);
+
+        return true;
+    }
+
+    /**
+     * @return the slot of the key, or -1 if it is not in the hash set.
+     */
+    private int findKey(long key) {
+        int mask = keys.length - 1;
+
+        for (int h = hash(key) & mask; keys[h] != 0; h = (h + 1) & mask) {
+            if (keys[h] == key) return h;
+        }
+
+        return -1;
+    }
+
+    /**
+     * puts a key that is not in the hash set into the first empty slot of its probe sequence.
+     */
+    private void insertKey(long key) {
+        int mask = keys.length - 1;
+        int h = hash(key) & mask;
+
+        while (keys[h] != 0) {
+            h = (h + 1) & mask;
+        }
+
+        keys[h] = key;
+    }
+
+    private void rehash() {
+        long[] old = keys;
+
+        keys = new long[2 * old.length];
+
+        for (long key : old) {
+            if (key != 0) insertKey(key);
+        }
+    }
+
+    private static int hash(long key) {
+        //the finalizer of SplitMix64, as in Clause, so the consecutive pairs are spread over the table
+        long z = key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return (int) (z ^ (z >>> 31));
+    }
+}
@@ -0,0 +1,370 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class implements the resolution method
+ * with many threads, using the fork-join framework.
+ *
+ * The saturation proceeds by rounds. In each round the clauses derived in the
+ * previous round (the new clauses) are resolved against all the clauses, and the
+ * work is split among fork-join tasks, each of them with a range of new clauses.
+ * During a round the clauses and their occurrence index are only read, while the
+ * resolvents are added to a concurrent set, which discards the duplicates.
+ * As soon as a task derives the empty clause, or the budget is exhausted,
+ * all the tasks stop.
+ *
+ * A resolvent subsumed by a clause of the previous rounds is discarded.
+ * The steps are not recorded. Each instance works on its own copy of the set,
+ * so many instances can run at the same time. The tasks run in a pool given
+ * to the constructor, or else in the common pool, so the instances that run
+ * at the same time share the same threads instead of starting their own.
+ */
+public class ParallelResolution implements Solver {
+
+    //the number of new clauses below which a task does not split its range
+    private static final int THRESHOLD = 8;
+
+    //the number of resolvents computed by a task between two checks of the budget
+    private static final int CHECK_PERIOD = 256;
+
+    //FIELDS
+    private final ClauseSet input; //the copy of the set in input
+    private final ForkJoinPool pool; //the pool where the tasks run, which is not shut down
+    private Result result; //null before the first search
+    private StopReason stopReason;
+    private Clause empty; //the empty clause derived by the last search, or null
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new solver for the specified set of clauses, whose tasks
+     * run in the common pool. The set is not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @throws NullPointerException if s is null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public ParallelResolution(ClauseSet s) {
+        this(s, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new solver for the specified set of clauses.
+     * The set is not modified.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param pool the pool where the tasks run. It is not shut down by the solver.
+     * @throws NullPointerException if s or pool are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public ParallelResolution(ClauseSet s, ForkJoinPool pool) {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(pool);
+        if (s.isEmpty()) throw new IllegalArgumentException("the clause set in input is empty");
+
+        this.input = s.copy();
+        this.pool = pool;
+        this.result = null;
+        this.stopReason = null;
+        this.empty = null;
+    }
+
+    //STATIC METHODS
+
+    /**
+     * This static method checks whether a set of clauses
+     * is satisfiable or not.
+     *
+     * @param s the set of clauses to consider for the resolution method.
+     * @param parallelism the number of threads to use.
+     *
+     * @return true, if s is satisfiable, false otherwise.
+     * @throws NullPointerException if s is null.
+     * @throws IllegalArgumentException if s is empty or parallelism is not positive.
+     */
+    public static boolean isSatisfiable(ClauseSet s, int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("the parallelism must be positive");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            return new ParallelResolution(s, pool).isSatisfiable();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    //METHODS
+
+    /**
+     * {@inheritDoc}
+     * A search stopped by the budget starts again from the beginning.
+     */
+    @Override
+    public Result solve(Budget budget) {
+        Objects.requireNonNull(budget);
+
+        if (result == Result.SATISFIABLE || result == Result.UNSATISFIABLE) return result;
+
+        stopReason = null;
+        empty = null;
+
+        try {
+            result = saturate(input.copy(), budget.start());
+        } catch (OutOfMemoryError e) {
+            //the clauses of the search are released, so the JVM can go on
+            result = Result.UNKNOWN;
+            stopReason = StopReason.OUT_OF_MEMORY;
+        }
+
+        return result;
+    }
+
+    @Override
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public Refutation getRefutation() {
+        return (empty != null) ? new Refutation(empty) : null;
+    }
+
+    /**
+     * applies the resolution method to the specified clauses by rounds.
+     * The clauses are modified.
+     *
+     * @param s the clauses.
+     * @param meter the meter of the budget of the search.
+     * @return the result, UNKNOWN if the budget is exhausted.
+     */
+    private Result saturate(ClauseSet s, Budget.Meter meter) {
+        s.removeTautologies();
+
+        if (s.isEmpty()) {
+            //in this case s contains only tautologies.
+            return Result.SATISFIABLE;
+        }
+
+        //unit propagation and pure literal elimination, without recording the steps
+        empty = Preprocessor.simplify(s, new Trace(), meter);
+
+        if (empty != null) return Result.UNSATISFIABLE;
+
+        if (meter.getStopReason() != null) {
+            stopReason = meter.getStopReason();
+            return Result.UNKNOWN;
+        }
+
+        if (s.isEmpty()) return Result.SATISFIABLE;
+
+        Search search = new Search(meter);
+        List<Clause> newClauses = new ArrayList<>();
+
+        for (Clause c : s) {
+            c.setIndex(search.nextIndex.getAndIncrement());
+            search.store.add(c);
+            search.occurrences.add(c);
+            newClauses.add(c);
+        }
+
+        try {
+            while (!newClauses.isEmpty()) {
+                Set<Clause> isNew = new HashSet<>(newClauses);
+
+                ForkJoinTask<List<Clause>> round = pool.submit(
+                    new RoundTask(search, newClauses, isNew, 0, newClauses.size()));
+                List<Clause> derived;
+
+                try {
+                    derived = round.get();
+                } catch (InterruptedException e) {
+                    //the tasks are stopped, and the interruption is kept for the caller
+                    search.stop.set(true);
+                    Thread.currentThread().interrupt();
+                    stopReason = StopReason.CANCELLED;
+                    return Result.UNKNOWN;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new IllegalStateException(e.getCause());
+                }
+
+                empty = search.empty.get();
+
+                if (empty != null) return Result.UNSATISFIABLE;
+
+                StopReason reason = search.reason.get();
+                if (reason == null) reason = meter.check(search.generated.get(), search.store.size());
+
+                if (reason != null) {
+                    stopReason = reason;
+                    return Result.UNKNOWN;
+                }
+
+                for (Clause c : derived) {
+                    search.occurrences.add(c);
+                }
+
+                newClauses = derived;
+            }
+        } finally {
+            //the pool belongs to the caller, so the tasks still running are stopped through the flag
+            search.stop.set(true);
+        }
+
+        /*
+         * if no new clause can be derived and the contradiction
+         * is not found, then s is satisfiable
+         */
+        return Result.SATISFIABLE;
+    }
+
+
+    /**
+     * this class represents the state of a search shared by its tasks.
+     */
+    private static class Search {
+
+        //FIELDS
+        private final Budget.Meter meter;
+        private final Set<Clause> store; //all the clauses, hashed by content
+        private final OccurrenceIndex occurrences; //the clauses of the previous rounds, read-only during a round
+        private final AtomicInteger nextIndex; //the index of the next clause
+        private final AtomicLong generated; //the resolvents computed, updated every CHECK_PERIOD resolvents
+        private final AtomicReference<Clause> empty; //the empty clause, once it is derived
+        private final AtomicReference<StopReason> reason; //the reason to stop, or null
+        private final AtomicBoolean stop; //true when the tasks must stop
+
+        //CONSTRUCTORS
+
+        public Search(Budget.Meter meter) {
+            this.meter = meter;
+            this.store = ConcurrentHashMap.newKeySet();
+            this.occurrences = new OccurrenceIndex();
+            this.nextIndex = new AtomicInteger();
+            this.generated = new AtomicLong();
+            this.empty = new AtomicReference<>(null);
+            this.reason = new AtomicReference<>(null);
+            this.stop = new AtomicBoolean(false);
+        }
+
+        //METHODS
+
+        /**
+         * adds the resolvents computed by a task, and checks the budget.
+         *
+         * @return true, if the search must stop.
+         */
+        public boolean charge(long resolvents) {
+            StopReason r = meter.check(generated.addAndGet(resolvents), store.size());
+
+            if (r != null) {
+                reason.compareAndSet(null, r);
+                stop.set(true);
+            }
+
+            return stop.get();
+        }
+    }
+
+
+    /**
+     * this class represents the task that resolves a range of the new clauses
+     * against all the clauses.
+     */
+    private static class RoundTask extends RecursiveTask<List<Clause>> {
+
+        private static final long serialVersionUID = 1L;
+
+        //FIELDS
+        private final Search search;
+        private final List<Clause> newClauses;
+        private final Set<Clause> isNew;
+        private final int from;
+        private final int to;
+
+        //CONSTRUCTORS
+
+        public RoundTask(Search search, List<Clause> newClauses, Set<Clause> isNew, int from, int to) {
+            this.search = search;
+            this.newClauses = newClauses;
+            this.isNew = isNew;
+            this.from = from;
+            this.to = to;
+        }
+
+        //METHODS
+
+        @Override
+        protected List<Clause> compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                RoundTask left = new RoundTask(search, newClauses, isNew, from, mid);
+                RoundTask right = new RoundTask(search, newClauses, isNew, mid, to);
+
+                left.fork();
+                List<Clause> res = right.compute();
+                res.addAll(left.join());
+
+                return res;
+            }
+
+            List<Clause> res = new ArrayList<>();
+            OccurrenceIndex occurrences = search.occurrences;
+            long resolvents = 0; //the resolvents not yet added to search.generated
+
+            for (int i = from; i < to && !search.stop.get(); i++) {
+                Clause c1 = newClauses.get(i);
+
+                for (int k = 0; k < c1.size() && !search.stop.get(); k++) {
+                    int pivot = c1.codeAt(k);
+                    int opposite = SymbolTable.opposite(pivot);
+
+                    for (Clause c2 : occurrences.get(opposite)) {
+
+                        //two new clauses are resolved only by the one with the lower index
+                        if (isNew.contains(c2) && c2.getIndex() < c1.getIndex()) continue;
+
+                        Clause newClause = Clause.resolveUnlessTautology(c1, c2, pivot);
+
+                        if (newClause != null && newClause.isEmpty()) {
+                            search.empty.compareAndSet(null, newClause);
+                            search.stop.set(true);
+                            return res;
+                        }
+
+                        //the tautologies are not built
+                        if (newClause != null
+                                && occurrences.findSubsuming(newClause) == null
+                                && search.store.add(newClause)) {
+                            newClause.setIndex(search.nextIndex.getAndIncrement());
+                            res.add(newClause);
+                        }
+
+                        if (++resolvents == CHECK_PERIOD) {
+                            if (search.charge(resolvents)) return res;
+                            resolvents = 0;
+                        }
+                    }
+                }
+            }
+
+            search.charge(resolvents);
+
+            return res;
+        }
+    }
+}
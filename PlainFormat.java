@@ -0,0 +1,72 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * This class without constructors reads sets of clauses in the plain format
+ * used by the files of the "test" directory: one clause for each line, with the
+ * literals separated by spaces and the negated atoms preceded by "~".
+ *
+ *   a ~b c
+ *   ~a
+ *
+ * The empty lines are ignored.
+ */
+public class PlainFormat {
+
+    /**
+     * reads a set of clauses in the plain format.
+     *
+     * @param in the reader of the clauses. It is not closed.
+     * @return the set of clauses read.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if in is null.
+     */
+    public static ClauseSet read(Reader in) throws IOException {
+        Objects.requireNonNull(in);
+
+        BufferedReader reader = new BufferedReader(in);
+        ClauseSet res = new ClauseSet();
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            Clause c = new Clause();
+
+            for (String litName : line.split(" ")) {
+                if (!litName.equals("")) {
+                    if (litName.charAt(0) == '~') {
+                        c.add(new NegAtom(litName.substring(1)));
+                    } else {
+                        c.add(new Atom(litName));
+                    }
+                }
+            }
+
+            if (!c.isEmpty()) {
+                res.add(c);
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * reads a set of clauses in the plain format from a file.
+     *
+     * @param file the path of the file.
+     * @return the set of clauses contained in the file.
+     * @throws IOException if the file cannot be read.
+     * @throws NullPointerException if file is null.
+     */
+    public static ClauseSet read(Path file) throws IOException {
+        Objects.requireNonNull(file);
+
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(in);
+        }
+    }
+}
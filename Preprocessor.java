@@ -0,0 +1,186 @@
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * This class without constructors contains the simplifications applied
+ * to a set of clauses before the resolution method.
+ *
+ * - unit propagation: for each unit clause {l}, the clauses that contain l are removed,
+ *   and ~l is removed from the other clauses by resolving them with {l}.
+ * - pure literal elimination: if the opposite of l does not appear in the set,
+ *   the clauses that contain l are removed.
+ *
+ * Both simplifications preserve the satisfiability of the set, and each of them
+ * is recorded as a Step. The simplification of a search checks the budget of the
+ * search, so a large set does not delay its deadline or its cancellation.
+ */
+public class Preprocessor {
+
+    /**
+     * simplifies the specified set of clauses, applying unit propagation until
+     * no unit clause can be used any more, and then pure literal elimination.
+     * the set must not contain tautologies.
+     *
+     * @param s the set of clauses to simplify. It is modified by this method.
+     * @param trace the trace where the steps of the simplification are recorded.
+     * @return the empty clause, if it is in s or it has been derived, so s is unsatisfiable.
+     *         null, otherwise.
+     * @throws NullPointerException if s or trace are null.
+     */
+    public static Clause simplify(ClauseSet s, Trace trace) {
+        return simplify(s, trace, new Budget().start());
+    }
+
+    /**
+     * simplifies the specified set of clauses like {@link #simplify(ClauseSet, Trace)},
+     * checking the budget of the search after each clause removed or resolved.
+     * if the budget is exhausted, s is left partially simplified and the reason is
+     * given by meter.getStopReason().
+     *
+     * @param s the set of clauses to simplify. It is modified by this method.
+     * @param trace the trace where the steps of the simplification are recorded.
+     * @param meter the meter of the budget of the search.
+     * @return the empty clause, if it is in s or it has been derived, so s is unsatisfiable.
+     *         null, otherwise, or if the budget is exhausted.
+     * @throws NullPointerException if an argument is null.
+     */
+    static Clause simplify(ClauseSet s, Trace trace, Budget.Meter meter) {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(trace);
+        Objects.requireNonNull(meter);
+
+        OccurrenceIndex occurrences = new OccurrenceIndex();
+        Deque<Clause> units = new ArrayDeque<>();
+
+        for (Clause c : s) {
+            //the empty clause in input is not resolved with any clause, so it is the refutation
+            if (c.isEmpty()) return c;
+
+            occurrences.add(c);
+
+            if (c.size() == 1) units.add(c);
+        }
+
+        Clause empty = propagateUnits(s, occurrences, units, trace, meter);
+
+        if (empty != null || meter.getStopReason() != null) return empty;
+
+        removePureLiterals(s, occurrences, trace, meter);
+
+        return null;
+    }
+
+    /**
+     * applies unit propagation until the queue of unit clauses is empty.
+     *
+     * @return the empty clause, if it has been derived. null, otherwise, or if the budget is exhausted.
+     */
+    private static Clause propagateUnits(ClauseSet s, OccurrenceIndex occurrences, Deque<Clause> units,
+            Trace trace, Budget.Meter meter) {
+
+        while (!units.isEmpty()) {
+            Clause unit = units.poll();
+
+            if (occurrences.isRemoved(unit)) continue;
+
+            int code = unit.codeAt(0);
+
+            //the clauses that contain the literal are satisfied by the unit clause
+            for (Clause c : occurrences.get(code)) {
+                if (c != unit && !occurrences.isRemoved(c)) {
+                    s.remove(c);
+                    occurrences.remove(c);
+                    if (trace.isEnabled()) trace.removal(c, "it is satisfied by the unit clause " + unit);
+
+                    if (isStopped(meter)) return null;
+                }
+            }
+
+            //the opposite literal is removed from the other clauses, whose resolvents do not contain l or ~l
+            for (Clause c : occurrences.get(SymbolTable.opposite(code))) {
+                if (occurrences.isRemoved(c)) continue;
+
+                Clause newClause = Clause.resolve(unit, c, code);
+                trace.resolution(unit, c, newClause, code);
+
+                s.remove(c);
+                occurrences.remove(c);
+
+                if (newClause.isEmpty()) return newClause;
+
+                if (isStopped(meter)) return null;
+
+                if (s.contains(newClause)) {
+                    trace.setAlreadyPresent();
+                } else {
+                    s.add(newClause);
+                    occurrences.add(newClause);
+
+                    if (newClause.size() == 1) units.add(newClause);
+                }
+            }
+
+            occurrences.purge();
+        }
+
+        return null;
+    }
+
+    /**
+     * removes the clauses that contain a pure literal, until no pure literal is left.
+     */
+    private static void removePureLiterals(ClauseSet s, OccurrenceIndex occurrences, Trace trace,
+            Budget.Meter meter) {
+        //the first round checks every literal of s
+        BitSet candidates = new BitSet();
+
+        for (Clause c : s) {
+            for (int i = 0; i < c.size(); i++) {
+                candidates.set(c.codeAt(i));
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            //a literal can become pure only if a clause with its opposite has been removed
+            BitSet next = new BitSet();
+
+            for (int code = candidates.nextSetBit(0); code >= 0; code = candidates.nextSetBit(code + 1)) {
+                if (isStopped(meter)) return;
+
+                if (occurrences.count(code) > 0 && occurrences.count(SymbolTable.opposite(code)) == 0) {
+                    //the reason is built only if it is recorded
+                    String reason = trace.isEnabled()
+                        ? "it contains the pure literal \"" + Literal.fromCode(code) + "\"" : null;
+
+                    for (Clause c : occurrences.get(code)) {
+                        if (!occurrences.isRemoved(c)) {
+                            s.remove(c);
+                            occurrences.remove(c);
+                            trace.removal(c, reason);
+
+                            for (int i = 0; i < c.size(); i++) {
+                                next.set(SymbolTable.opposite(c.codeAt(i)));
+                            }
+                        }
+                    }
+                }
+            }
+
+            //the counts of the next round must not include the removed clauses
+            occurrences.purge();
+            candidates = next;
+        }
+    }
+
+    /**
+     * the simplification does not generate clauses and does not grow the set,
+     * so only the time and the cancellation are checked.
+     *
+     * @return true, if the budget is exhausted.
+     */
+    private static boolean isStopped(Budget.Meter meter) {
+        return meter.tick(0, 0) != null;
+    }
+}
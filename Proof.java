@@ -0,0 +1,210 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * this class represents a proof of unsatisfiability by resolution: the list of the
+ * clauses derived from the clauses in input up to the empty clause, each of them with
+ * the identifiers of its two premises.
+ *
+ * The clauses in input have the identifiers 1, 2, ... in the order of the set, and the
+ * derived clauses have the following ones. The variables are numbered as in the DIMACS
+ * file written by {@link Dimacs#write} for the same set, so the proof can be checked
+ * together with that file.
+ *
+ * The proof can be written in the LRAT text format, where each derived clause is a line
+ *
+ *   id literals 0 premises 0
+ *
+ * or in a compact binary format, made of unsigned integers of variable length (7 bits
+ * in each byte, the least significant first, with the high bit set in every byte
+ * except the last one):
+ *
+ *   - the number of clauses in input;
+ *   - for each derived clause, the number of literals, the literals encoded as
+ *     2 * variable + (1 if negated), sorted, the first one as it is and each of the
+ *     others as the difference from the previous one, then the number of premises
+ *     and, for each of them, the difference between the identifier of the clause
+ *     and the identifier of the premise.
+ *
+ * The empty clause is the last clause. If the empty clause is in input, the proof has
+ * no derived clauses, and the binary format contains only the number of clauses in input.
+ * The binary format is read by {@link ProofChecker}.
+ */
+public class Proof {
+
+    //FIELDS
+    private final ClauseSet input;
+    private final Map<Integer, Integer> numbers; //variable of the SymbolTable -> DIMACS variable
+    private final List<Clause> derived; //the derived clauses, in order
+    private final List<int[]> premises; //the identifiers of the premises of each derived clause
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs the proof given by the steps of a refutation
+     * (see {@link Refutation#getSteps}).
+     *
+     * @param input the set of clauses in input of the solver.
+     * @param refutation the resolution steps from the clauses in input to the empty clause,
+     *        in order: each premise must be a clause in input or the conclusion of a previous step.
+     *        It is empty if the empty clause is in input.
+     * @throws NullPointerException if input or refutation are null.
+     * @throws IllegalArgumentException if the steps are not a refutation of input.
+     */
+    public Proof(ClauseSet input, List<Step> refutation) {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(refutation);
+
+        this.input = input;
+        this.numbers = Dimacs.numbers(input);
+        this.derived = new ArrayList<>();
+        this.premises = new ArrayList<>();
+
+        //the clauses are identified by their content, which is the same in the copies of the solvers
+        Map<Clause, Integer> ids = new HashMap<>();
+
+        for (Clause c : input) {
+            ids.put(c, ids.size() + 1);
+        }
+
+        int next = input.size() + 1;
+
+        for (Step st : refutation) {
+            if (!st.isResolution()) {
+                throw new IllegalArgumentException("the step " + st.getStepNumber() + " is not a resolution step");
+            }
+
+            Integer id1 = ids.get(st.getPremise1());
+            Integer id2 = ids.get(st.getPremise2());
+
+            if (id1 == null || id2 == null) {
+                throw new IllegalArgumentException("a premise of the step " + st.getStepNumber() + " has not been derived");
+            }
+
+            derived.add(st.getConclusion());
+            premises.add(new int[] {id1, id2});
+            ids.put(st.getConclusion(), next++);
+        }
+
+        if (derived.isEmpty() ? !ids.containsKey(new Clause()) : !derived.get(derived.size() - 1).isEmpty()) {
+            throw new IllegalArgumentException("the steps do not derive the empty clause");
+        }
+    }
+
+    //METHODS
+
+    /**
+     * @return the number of derived clauses, including the empty clause,
+     *         or 0 if the empty clause is in input.
+     */
+    public int size() {
+        return derived.size();
+    }
+
+    /**
+     * writes the proof in the LRAT text format.
+     *
+     * @param out the writer. It is flushed, but not closed.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if out is null.
+     */
+    public void writeLrat(Writer out) throws IOException {
+        Objects.requireNonNull(out);
+
+        StringBuilder line = new StringBuilder();
+        int id = input.size() + 1;
+
+        for (int i = 0; i < derived.size(); i++, id++) {
+            line.setLength(0);
+            line.append(id).append(' ');
+
+            for (int code : encode(derived.get(i))) {
+                if ((code & 1) != 0) line.append('-');
+                line.append(code >>> 1).append(' ');
+            }
+
+            line.append('0');
+
+            for (int p : premises.get(i)) {
+                line.append(' ').append(p);
+            }
+
+            line.append(" 0\n");
+            out.write(line.toString());
+        }
+
+        out.flush();
+    }
+
+    /**
+     * writes the proof in the binary format.
+     *
+     * @param out the stream. It is flushed, but not closed.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if out is null.
+     */
+    public void writeBinary(OutputStream out) throws IOException {
+        Objects.requireNonNull(out);
+
+        OutputStream buffered = new BufferedOutputStream(out);
+        int id = input.size() + 1;
+
+        writeNumber(buffered, input.size());
+
+        for (int i = 0; i < derived.size(); i++, id++) {
+            int[] codes = encode(derived.get(i));
+            int previous = 0;
+
+            writeNumber(buffered, codes.length);
+
+            for (int code : codes) {
+                writeNumber(buffered, code - previous);
+                previous = code;
+            }
+
+            writeNumber(buffered, premises.get(i).length);
+
+            for (int p : premises.get(i)) {
+                writeNumber(buffered, id - p);
+            }
+        }
+
+        buffered.flush();
+    }
+
+    /**
+     * @return the literals of c encoded as 2 * DIMACS variable + (1 if negated), sorted.
+     */
+    private int[] encode(Clause c) {
+        int[] res = new int[c.size()];
+
+        for (int i = 0; i < c.size(); i++) {
+            int code = c.codeAt(i);
+            res[i] = 2 * numbers.get(SymbolTable.variable(code)) + (SymbolTable.isNegated(code) ? 1 : 0);
+        }
+
+        Arrays.sort(res);
+
+        return res;
+    }
+
+    /**
+     * writes a non-negative number with 7 bits in each byte, the least significant first.
+     */
+    private static void writeNumber(OutputStream out, int n) throws IOException {
+        while ((n & ~0x7F) != 0) {
+            out.write((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+
+        out.write(n);
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class without constructors checks the proofs written by
+ * {@link Proof#writeBinary}, replaying them clause by clause.
+ *
+ * Each derived clause C is checked by reverse unit propagation on its premises only:
+ * all the literals of C are assumed false, and then each premise, in order, must
+ * become a unit clause, whose literal is assumed true, except the last one, which
+ * must become false. For a resolution step, the first premise becomes the unit
+ * clause of the removed literal and the second one becomes false.
+ * So each clause is checked in time proportional to the size of its premises.
+ */
+public class ProofChecker {
+
+    /**
+     * checks a proof of unsatisfiability of the specified set of clauses.
+     *
+     * @param input the set of clauses, in the same order used to write the proof.
+     * @param proof the stream of the proof in the binary format. It is not closed.
+     * @return true, if the proof is well formed, each clause follows from its premises
+     *         and the last clause is the empty clause, or the proof has no clauses and
+     *         the empty clause is in input. false, otherwise.
+     * @throws IOException if the proof cannot be read.
+     * @throws NullPointerException if input or proof are null.
+     */
+    public static boolean check(ClauseSet input, InputStream proof) throws IOException {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(proof);
+
+        InputStream in = new BufferedInputStream(proof);
+        Map<Integer, Integer> numbers = Dimacs.numbers(input);
+        List<int[]> clauses = new ArrayList<>(); //the clause with identifier i is in position i - 1
+        int maxCode = 1;
+        boolean emptyInput = false; //true if the empty clause is in input
+
+        for (Clause c : input) {
+            int[] codes = new int[c.size()];
+
+            for (int i = 0; i < c.size(); i++) {
+                int code = c.codeAt(i);
+                codes[i] = 2 * numbers.get(SymbolTable.variable(code)) + (SymbolTable.isNegated(code) ? 1 : 0);
+                maxCode = Math.max(maxCode, codes[i]);
+            }
+
+            clauses.add(codes);
+            emptyInput |= codes.length == 0;
+        }
+
+        if (readNumber(in) != input.size()) return false;
+
+        boolean[] isTrue = new boolean[maxCode + 2]; //the literals assumed true, by code
+        int[] trail = new int[16]; //the codes set in isTrue, to reset them
+
+        while (true) {
+            long size = readNumber(in);
+
+            //the proof ends before the empty clause, which is enough only if it is in input
+            if (size < 0) return emptyInput && clauses.size() == input.size();
+
+            int[] codes = new int[(int) size];
+            long code = 0;
+
+            for (int i = 0; i < size; i++) {
+                long delta = readNumber(in);
+
+                if (delta <= 0 && i > 0) return false; //the literals are not sorted or not distinct
+
+                code += delta;
+
+                if (code < 2 || code > Integer.MAX_VALUE - 1) return false;
+
+                codes[i] = (int) code;
+            }
+
+            long count = readNumber(in);
+            int id = clauses.size() + 1;
+
+            if (count <= 0) return false;
+
+            int[] premises = new int[(int) count];
+
+            for (int i = 0; i < count; i++) {
+                long delta = readNumber(in);
+
+                if (delta <= 0 || delta >= id) return false;
+
+                premises[i] = (int) (id - delta);
+            }
+
+            //code is the greatest literal of the clause, and its opposite can be code + 1
+            if (isTrue.length < code + 2) {
+                isTrue = Arrays.copyOf(isTrue, Math.max((int) code + 2, 2 * isTrue.length));
+            }
+
+            if (trail.length < codes.length + premises.length) trail = new int[codes.length + premises.length];
+
+            if (!follows(codes, premises, clauses, isTrue, trail)) return false;
+
+            //the empty clause ends the proof
+            if (size == 0) return in.read() == -1;
+
+            clauses.add(codes);
+        }
+    }
+
+    /**
+     * checks by reverse unit propagation on the premises that the clause follows from them.
+     * isTrue is all false before and after the call.
+     */
+    private static boolean follows(int[] codes, int[] premises, List<int[]> clauses, boolean[] isTrue, int[] trail) {
+        int assigned = 0;
+        boolean res = false;
+
+        //the literals of the clause are assumed false
+        for (int code : codes) {
+            isTrue[code ^ 1] = true;
+            trail[assigned++] = code ^ 1;
+        }
+
+        for (int p : premises) {
+            int unit = -1;
+            int open = 0; //the literals of the premise that are not false
+
+            for (int code : clauses.get(p - 1)) {
+                if (!isTrue[code ^ 1]) {
+                    open++;
+                    unit = code;
+                }
+            }
+
+            if (open == 0) {
+                res = true; //the premise is false, so the clause follows
+                break;
+            }
+
+            if (open > 1 || isTrue[unit]) break; //the premise is not a unit clause
+
+            isTrue[unit] = true;
+            trail[assigned++] = unit;
+        }
+
+        for (int i = 0; i < assigned; i++) {
+            isTrue[trail[i]] = false;
+        }
+
+        return res;
+    }
+
+    /**
+     * reads a non-negative number with 7 bits in each byte, the least significant first.
+     *
+     * @return the number, or -1 at the end of the stream or if the number is too large.
+     */
+    private static long readNumber(InputStream in) throws IOException {
+        long res = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+
+            if (b == -1) return -1;
+
+            res |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) return res <= Integer.MAX_VALUE ? res : -1;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * this class represents the refutation found by a resolution solver: the resolvents
+ * from which the empty clause is derived, obtained by following back the premises
+ * of the empty clause, and the clauses in input used by them (the unsat core).
+ *
+ * The resolvents that do not contribute to the empty clause, such as the tautologies,
+ * the clauses already present and the other retained clauses, are not part of it.
+ */
+public class Refutation {
+
+    //FIELDS
+    private final List<Clause> derived; //the resolvents, each after its premises, the empty clause last
+    private final ClauseSet core; //the clauses in input used by the resolvents
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs the refutation that ends with the specified empty clause.
+     * If the empty clause is in input, the refutation has no resolvents
+     * and its core is the empty clause.
+     *
+     * @param empty the empty clause derived by the solver, or found in input.
+     * @throws NullPointerException if empty is null.
+     * @throws IllegalArgumentException if empty is not the empty clause.
+     */
+    public Refutation(Clause empty) {
+        Objects.requireNonNull(empty);
+        if (!empty.isEmpty()) throw new IllegalArgumentException("the clause is not empty");
+
+        this.derived = new ArrayList<>();
+        this.core = new ClauseSet();
+
+        //a clause is done after its premises, so the resolvents are added in the order of derivation
+        Map<Clause, Boolean> done = new IdentityHashMap<>(); //false while the premises are visited
+        Deque<Clause> toVisit = new ArrayDeque<>();
+
+        toVisit.push(empty);
+
+        while (!toVisit.isEmpty()) {
+            Clause c = toVisit.peek();
+            Boolean state = done.get(c);
+
+            if (state == null) {
+                done.put(c, false);
+
+                if (c.getParent1() != null) {
+                    if (!done.containsKey(c.getParent2())) toVisit.push(c.getParent2());
+                    if (!done.containsKey(c.getParent1())) toVisit.push(c.getParent1());
+                }
+            } else {
+                toVisit.pop();
+
+                if (!state) {
+                    done.put(c, true);
+
+                    if (c.getParent1() != null) {
+                        derived.add(c);
+                    } else {
+                        core.add(c);
+                    }
+                }
+            }
+        }
+    }
+
+    //METHODS
+
+    /**
+     * @return the number of resolvents, including the empty clause, or 0 if the empty
+     *         clause is in input.
+     */
+    public int size() {
+        return derived.size();
+    }
+
+    /**
+     * @return the clauses in input from which the empty clause is derived. They are an
+     *         unsatisfiable subset of the set in input.
+     */
+    public ClauseSet getCore() {
+        return core;
+    }
+
+    /**
+     * @return the resolution steps of the refutation, numbered from 1, each of them
+     *         after the steps of its premises. The last one derives the empty clause;
+     *         there are no steps if the empty clause is in input.
+     */
+    public List<Step> getSteps() {
+        List<Step> res = new ArrayList<>(derived.size());
+
+        for (Clause c : derived) {
+            res.add(new Step(res.size() + 1, c.getParent1(), c.getParent2(), c, Literal.fromCode(c.getPivot())));
+        }
+
+        return Collections.unmodifiableList(res);
+    }
+}
@@ -1,19 +1,85 @@
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 /**
- * This class without constructors contains methods that implement 
- * the resolution method in propositional logic for a set of clauses.
+ * This class implements the resolution method in propositional logic 
+ * for a set of clauses.
+ * 
+ * A resolvent subsumed by a clause of the set is discarded (forward subsumption), 
+ * and the clauses subsumed by a new resolvent are removed (backward subsumption).
+ * 
+ * With a precedence on the atoms (see {@link AtomOrdering}) the resolution is ordered:
+ * a clause is resolved only upon its eligible literals, which are the literals selected
+ * by the selection function (see {@link LiteralSelection}) or, if none is selected, its
+ * greatest literal. Two clauses are resolved only if the clashing literals are eligible
+ * in both, so there are far fewer resolvents, and the method is still complete.
+ * 
+ * Each instance works on its own copy of the set, and owns the indexes of its clauses,
+ * the pairs already visited and the trace of the steps, so many instances
+ * can run at the same time on different threads.
  */
-public class Resolution {
+public class Resolution extends AbstractResolution {
 
-    private static Map<Integer, Set<Integer>> visited;
-    private static List<Step> trace;
+    //FIELDS
+    private final PairSet visited; //the pairs of indexes of the clauses already resolved
+    private final AtomOrdering ordering; //the precedence of the ordered resolution, or null
+    private final LiteralSelection selection;
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new solver for the specified set of clauses, without trace.
+     * The set is not modified.
+     * 
+     * @param s the set of clauses to consider for the resolution method.
+     * @throws NullPointerException if s is null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public Resolution(ClauseSet s) {
+        this(s, new Trace());
+    }
+
+    /**
+     * Constructs a new solver for the specified set of clauses.
+     * The set is not modified.
+     * 
+     * @param s the set of clauses to consider for the resolution method.
+     * @param trace the trace where the steps of each search are recorded.
+     * @throws NullPointerException if s or trace are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public Resolution(ClauseSet s, Trace trace) {
+        super(s, trace);
+
+        this.visited = new PairSet();
+        this.ordering = null;
+        this.selection = LiteralSelection.NONE;
+    }
+
+    /**
+     * Constructs a new solver for the specified set of clauses, which applies
+     * the ordered resolution. The set is not modified.
+     * 
+     * @param s the set of clauses to consider for the resolution method.
+     * @param trace the trace where the steps of each search are recorded.
+     * @param ordering the precedence on the atoms.
+     * @param selection the selection function of the negative literals.
+     * @throws NullPointerException if an argument is null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public Resolution(ClauseSet s, Trace trace, AtomOrdering ordering, LiteralSelection selection) {
+        super(s, trace);
+        Objects.requireNonNull(ordering);
+        Objects.requireNonNull(selection);
+
+        this.visited = new PairSet();
+        this.ordering = ordering;
+        this.selection = selection;
+    }
+
+    //STATIC METHODS
 
     /**
      * This static method checks whether a set of clauses
@@ -29,155 +95,155 @@ public class Resolution {
      * @throws IllegalArgumentException if s is empty.
      */
     public static boolean isSatisfiable(ClauseSet s, boolean enableSteps) {
+        Resolution solver = new Resolution(s, new Trace(enableSteps ? Trace.Mode.FULL : Trace.Mode.OFF));
+        boolean res = solver.isSatisfiable();
 
-        Objects.requireNonNull(s);
-        if (s.isEmpty()) throw new IllegalArgumentException("the clause set in input is empty");
+        if (enableSteps) solver.printTrace();
 
-        s.removeTautologies();
+        return res;
+    }
 
-        if (s.isEmpty()) {
-            //in this case s contains only tautologies.
-            return true;
-        }
+    //METHODS
+
+    @Override
+    protected void clearSearch() {
+        visited.clear();
+    }
 
-        visited = new HashMap<>();
-        trace = new ArrayList<>();
+    /**
+     * applies the resolution method to the specified clauses, which are modified.
+     * 
+     * @param s the clauses.
+     * @param meter the meter of the budget of the search.
+     * @return the result, UNKNOWN if the budget is exhausted.
+     */
+    @Override
+    protected Result saturate(ClauseSet s, Budget.Meter meter) {
         List<Clause> listCl = new ArrayList<>(); 
+        ClauseSet present = new ClauseSet(); //the clauses of listCl, hashed by content
+        OccurrenceIndex occurrences = new OccurrenceIndex(); //the clauses of listCl, by literal
+
+        //the literals that can be resolved upon in each clause of listCl, sorted, by index;
+        //they are computed when the clause is indexed, and only if the resolution is ordered
+        List<int[]> eligible = new ArrayList<>();
 
         for (Clause c : s) {
-            //initializes the map, with an empty set for each index of the clauses in s
-            visited.put(c.getIndex(), new HashSet<>());
+            retain(c, present, occurrences);
             listCl.add(c);
+            if (ordering != null) eligible.add(eligibleLiterals(c));
         }
 
+        nextClause:
         for (int i = 0; i < listCl.size(); i++) {
 
             Clause c1 = listCl.get(i);
+
             int index1 = c1.getIndex();
 
-            for (int j = 0; j < listCl.size(); j++) {
-
-                Clause c2 = listCl.get(j);
-                int index2 = c2.getIndex();
-
-                if ((i != j) && !alreadyVisited(c1, c2)) {
-
-                    Literal complemLit = getComplementaryLiterals(c1, c2);
-
-                    if (complemLit != null) {
-                        //adds the greater index to the set of indexes already visited by the lower index
-                        if (index1 < index2) {
-                            (visited.get(index1)).add(index2);
-                        } else {
-                            (visited.get(index2)).add(index1);
-                        }
-
-                        Clause newClause = resolRule(c1, c2, complemLit);
-
-                        //create a new step and insert the clauses and literal
-                        Step step = new Step(c1, c2, newClause, complemLit);
-                        trace.add(step);
-
-                        /*
-                        * if the resolving clause is empty, then we have found a contradiction 
-                        * which proves that the set s is unsatisfiable.
-                        */
-                        if (newClause.isEmpty()) {
-                            if (enableSteps) printTrace();
-                            return false;
-                        } 
-
-                        if (newClause.isTautology()) {
-                            step.setTautology();
-                        } else if (listCl.contains(newClause)) {
-                            step.setAlreadyPresent();
-                        } else {
-                            visited.put(newClause.getIndex(), new HashSet<>());
-                            listCl.add(newClause);
-                        }
+            if (occurrences.isRemoved(c1)) continue; //c1 is subsumed by a clause derived later
+
+            //no occurrence list is being scanned here, so the removed clauses can be deleted
+            occurrences.purge();
+
+            for (int k = 0; k < c1.size(); k++) {
+
+                if (!isEligible(eligible, c1, c1.codeAt(k))) continue;
+
+                /*
+                 * c1 can be resolved only with the clauses that contain the opposite 
+                 * of one of its literals. The list grows while new resolvents are added.
+                 */
+                int pivot = c1.codeAt(k);
+                List<Clause> candidates = occurrences.get(SymbolTable.opposite(pivot));
+
+                for (int j = 0; j < candidates.size(); j++) {
+
+                    Clause c2 = candidates.get(j);
+                    int index2 = c2.getIndex();
+
+                    //marks the pair as visited, if it was not visited yet
+                    if (!occurrences.isRemoved(c2) && isEligible(eligible, c2, SymbolTable.opposite(pivot))
+                            && visited.add(index1, index2)) {
+
+                        Clause newClause = resolve(c1, c2, pivot, meter);
+
+                        if (empty != null) return Result.UNSATISFIABLE;
+
+                        if (stopReason != null) return Result.UNKNOWN;
+
+                        if (newClause == null || !admit(newClause, present, occurrences, null)) continue;
+
+                        listCl.add(newClause);
+                        if (ordering != null) eligible.add(eligibleLiterals(newClause));
+
+                        //the new clause is stronger than c1, so c1 is not resolved any more
+                        if (occurrences.isRemoved(c1)) continue nextClause;
                     }
                 }
             }
         }
 
-        if (enableSteps) printTrace();
-
         /*
          * if after analyzing all the pairs of clauses in s, 
          * the contradiction is not found, then s is satisfiable
          */
-        return true;
+        return Result.SATISFIABLE;
     }
 
     /**
-     *
-     * This method checks whether two clauses have at least one literal in common
-     * where one is the opposite of the other, so that the resolution rule for the 
-     * two clauses can be executed.
      * 
-     * @param c1 the first clause
-     * @param c2 the second clause
-     * @return the literal in common, that is complementary in the two clauses.
-     * @return null, if the literal to search is not present.     
+     * @param eligible the eligible literals of the clauses, by index (see eligibleLiterals).
+     * @param c an indexed clause.
+     * @param code the code of a literal of c.
+     * @return true, if c can be resolved upon the literal: always, if the resolution is not ordered.
      */
-    private static Literal getComplementaryLiterals(Clause c1, Clause c2) { 
-        for (Literal l1 : c1) {
-            for (Literal l2 : c2) { 
-                if (l1.equals(l2.getOpposite())) return l1;
-            }
-        }
-
-        return null;
+    private boolean isEligible(List<int[]> eligible, Clause c, int code) {
+        return ordering == null || Arrays.binarySearch(eligible.get(c.getIndex()), code) >= 0;
     }
 
     /**
      * 
-     * @param c1 the first clause.
-     * @param c2 the second clause.
-     * @return true, if the two clauses c1 and c2 are already compared previously
-     *         by the resolution method. false otherwise.
+     * @param c a clause that is not a tautology nor empty.
+     * @return the codes of the literals of c that can be resolved upon in the ordered
+     *         resolution, sorted: the selected literals, if any, or else the greatest one.
      */
-    private static boolean alreadyVisited(Clause c1, Clause c2) {
-        int i1 = c1.getIndex();
-        int i2 = c2.getIndex();
+    private int[] eligibleLiterals(Clause c) {
+        int greatest = -1; //the code of the greatest literal
+        int greatestNegative = -1; //the code of the greatest negative literal
+        int negatives = 0;
 
-        if (i1 < i2) {
-            return (visited.get(i1)).contains(i2);
-        }
+        for (int k = 0; k < c.size(); k++) {
+            int other = c.codeAt(k);
 
-        //case i1 > i2
-        return (visited.get(i2)).contains(i1);
-    }
+            if (greatest < 0 || ordering.compare(SymbolTable.variable(other), SymbolTable.variable(greatest)) > 0) {
+                greatest = other;
+            }
 
+            if (SymbolTable.isNegated(other)) {
+                negatives++;
 
-    /**
-     * 
-     * This method implements the resolution rule, in which two premise clauses are considered,
-     * a pair of complementary literals in the two clauses are deleted, 
-     * and the remaining literals are put into logical disjunction, 
-     * thus forming the resolving clause.
-     * 
-     * @param c1 the first clause.
-     * @param c2 the second clause.
-     * @param lit the literal that must be deleted, with its opposite. 
-     * @return the clause obtained by disjuncting the two clauses and 
-     *         deleting the pair of literals
-     */
-    private static Clause resolRule(Clause c1, Clause c2, Literal lit) {
-        Clause result = Clause.union(c1, c2);
+                if (greatestNegative < 0
+                        || ordering.compare(SymbolTable.variable(other), SymbolTable.variable(greatestNegative)) > 0) {
+                    greatestNegative = other;
+                }
+            }
+        }
 
-        result.remove(lit);
-        result.remove(lit.getOpposite());
-        
-        return result;
-    }
+        //the selected literals, if any, replace the greatest one
+        if (greatestNegative >= 0 && selection == LiteralSelection.ALL_NEGATIVE) {
+            int[] res = new int[negatives];
+            int n = 0;
 
-    /**
-     * prints the trace of the steps that have been performed by the resolution method.
-     */
-    private static void printTrace() {
-        for (Step st : trace) {
-            System.out.println(st.toString());
+            //the codes of c are sorted, so the result is sorted too
+            for (int k = 0; k < c.size(); k++) {
+                if (SymbolTable.isNegated(c.codeAt(k))) res[n++] = c.codeAt(k);
+            }
+
+            return res;
         }
+
+        if (greatestNegative >= 0 && selection == LiteralSelection.MAXIMAL_NEGATIVE) return new int[] {greatestNegative};
+
+        return new int[] {greatest};
     }
 }
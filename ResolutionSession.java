@@ -0,0 +1,323 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class implements an incremental session of the resolution method: the clauses
+ * can be added between the searches, and each search goes on from the saturated set
+ * of the previous ones, so after a small addition it resolves only the new clauses
+ * against the existing ones.
+ *
+ * The session keeps the list of its clauses, the pairs already visited and the position
+ * of the first clause not yet resolved. The clauses before that position have been
+ * resolved with all the clauses, so a new clause is resolved with them when its turn
+ * comes. The preprocessing of the other solvers is not applied, because the removal
+ * of the clauses with a pure literal is not valid after a literal becomes impure.
+ *
+ * A search can also be performed under assumptions, literals that are true only for
+ * that search. When the clauses are saturated, they are unsatisfiable under the
+ * assumptions exactly if one of them contains only opposites of assumptions, which
+ * are the failed assumptions. So the assumptions do not change the saturated set.
+ *
+ * Unlike the other solvers, the result of a session can change when clauses are added,
+ * until the empty clause is derived.
+ */
+public class ResolutionSession implements Solver {
+
+    //FIELDS
+    private final List<Clause> clauses; //all the clauses added or derived, in order
+    private final ClauseSet present; //the clauses of the list, hashed by content
+    private final OccurrenceIndex occurrences; //the clauses of the list not removed, by literal
+    private final PairSet visited; //the pairs of indexes of the clauses already resolved
+    private int next; //the position of the first clause not yet resolved with all the others
+    private long retained; //the clauses of the list not removed
+    private Clause empty; //the empty clause, once it has been derived or added
+    private boolean exhausted; //true if the heap has been exhausted, so the state is not consistent
+    private List<Literal> failed; //the failed assumptions of the last search, or null
+    private StopReason stopReason;
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new session without clauses, which is satisfiable.
+     */
+    public ResolutionSession() {
+        this.clauses = new ArrayList<>();
+        this.present = new ClauseSet();
+        this.occurrences = new OccurrenceIndex();
+        this.visited = new PairSet();
+        this.next = 0;
+        this.retained = 0;
+        this.empty = null;
+        this.exhausted = false;
+        this.failed = null;
+        this.stopReason = null;
+    }
+
+    /**
+     * Constructs a new session with the clauses of the specified set.
+     * The set is not modified.
+     *
+     * @param s the initial clauses.
+     * @throws NullPointerException if s is null.
+     */
+    public ResolutionSession(ClauseSet s) {
+        this();
+        addAll(s);
+    }
+
+    //METHODS
+
+    /**
+     * adds a clause to the session. A tautology, or a clause subsumed by a clause of
+     * the session, is ignored; the clauses subsumed by the new clause are removed.
+     * The clause is copied, so it is not modified.
+     *
+     * @param c the clause to add.
+     * @throws NullPointerException if c is null.
+     */
+    public void add(Clause c) {
+        Objects.requireNonNull(c);
+
+        if (c.isTautology() || present.contains(c)) return;
+
+        Clause copy = c.copy();
+
+        if (copy.isEmpty()) {
+            empty = copy;
+            return;
+        }
+
+        if (occurrences.findSubsuming(copy) == null) retain(copy);
+    }
+
+    /**
+     * adds all the clauses of the specified set to the session (see add).
+     *
+     * @param s the clauses to add.
+     * @throws NullPointerException if s is null.
+     */
+    public void addAll(ClauseSet s) {
+        Objects.requireNonNull(s);
+
+        for (Clause c : s) {
+            add(c);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The search goes on from the clauses saturated by the previous searches,
+     * also when they have been stopped by the budget. After an OutOfMemoryError
+     * the result is always UNKNOWN, until the empty clause is added.
+     */
+    @Override
+    public Result solve(Budget budget) {
+        return solve(budget, Collections.emptyList());
+    }
+
+    /**
+     * checks whether the clauses of the session are satisfiable when the specified
+     * literals are true, using at most the resources of the budget.
+     * The assumptions hold only for this search.
+     *
+     * @param budget the resources available for the search.
+     * @param assumptions the literals assumed true.
+     * @return the result, UNKNOWN if the search has been stopped before the end.
+     * @throws NullPointerException if budget or assumptions are null.
+     */
+    public Result solve(Budget budget, List<Literal> assumptions) {
+        Objects.requireNonNull(budget);
+        Objects.requireNonNull(assumptions);
+
+        failed = null;
+
+        if (empty != null) return Result.UNSATISFIABLE;
+
+        if (exhausted) return Result.UNKNOWN;
+
+        stopReason = null;
+
+        Result res;
+
+        try {
+            res = saturate(budget.start());
+        } catch (OutOfMemoryError e) {
+            //a pair may have been visited without keeping its resolvent, so the search cannot be resumed
+            exhausted = true;
+            stopReason = StopReason.OUT_OF_MEMORY;
+            return Result.UNKNOWN;
+        }
+
+        if (res != Result.SATISFIABLE) return res;
+
+        failed = findFailed(assumptions);
+
+        return (failed == null) ? Result.SATISFIABLE : Result.UNSATISFIABLE;
+    }
+
+    @Override
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return the refutation, if the clauses of the session are unsatisfiable without
+     *         assumptions, or the empty clause has been added. null, otherwise.
+     */
+    @Override
+    public Refutation getRefutation() {
+        return (empty != null) ? new Refutation(empty) : null;
+    }
+
+    /**
+     * @return the assumptions that make the last search unsatisfiable, or null if its
+     *         result is not UNSATISFIABLE or it is so without assumptions.
+     */
+    public List<Literal> getFailedAssumptions() {
+        return (failed != null) ? Collections.unmodifiableList(failed) : null;
+    }
+
+    /**
+     * @return the number of clauses of the session, added or derived, that have not been removed.
+     */
+    public long size() {
+        return retained;
+    }
+
+    /**
+     * resolves the clauses from the position next, until the clauses are saturated.
+     *
+     * @return the result without assumptions, UNKNOWN if the budget is exhausted.
+     */
+    private Result saturate(Budget.Meter meter) {
+        long generated = 0; //the resolvents computed by this search
+
+        nextClause:
+        for (; next < clauses.size(); next++) {
+
+            Clause c1 = clauses.get(next);
+
+            if (occurrences.isRemoved(c1)) continue;
+
+            //no occurrence list is being scanned here, so the removed clauses can be deleted
+            occurrences.purge();
+
+            for (int k = 0; k < c1.size(); k++) {
+
+                int pivot = c1.codeAt(k);
+                List<Clause> candidates = occurrences.get(SymbolTable.opposite(pivot));
+
+                for (int j = 0; j < candidates.size(); j++) {
+
+                    Clause c2 = candidates.get(j);
+
+                    if (occurrences.isRemoved(c2) || visited.contains(c1.getIndex(), c2.getIndex())) continue;
+
+                    //the budget is checked before the pair is visited, so no pair is lost when the search stops
+                    StopReason reason = meter.tick(generated, retained);
+
+                    if (reason != null) {
+                        stopReason = reason;
+                        return Result.UNKNOWN;
+                    }
+
+                    visited.add(c1.getIndex(), c2.getIndex());
+
+                    Clause newClause = Clause.resolveUnlessTautology(c1, c2, pivot);
+                    generated++;
+
+                    //the tautologies are not built
+                    if (newClause == null) continue;
+
+                    if (newClause.isEmpty()) {
+                        empty = newClause;
+                        return Result.UNSATISFIABLE;
+                    }
+
+                    if (present.contains(newClause)
+                            || occurrences.findSubsuming(newClause) != null) {
+                        continue;
+                    }
+
+                    retain(newClause);
+
+                    //the new clause is stronger than c1, so c1 is not resolved any more
+                    if (occurrences.isRemoved(c1)) continue nextClause;
+                }
+            }
+        }
+
+        return Result.SATISFIABLE;
+    }
+
+    /**
+     * adds a clause that is not subsumed to the list, removing the clauses subsumed by it.
+     */
+    private void retain(Clause c) {
+        for (Clause d : occurrences.findSubsumed(c)) {
+            occurrences.remove(d);
+            retained--;
+        }
+
+        c.setIndex(clauses.size());
+        clauses.add(c);
+        present.add(c);
+        occurrences.add(c);
+        retained++;
+    }
+
+    /**
+     * looks for a clause that contains only opposites of the assumptions.
+     *
+     * @return the assumptions whose opposites are in the clause, or null if there is none.
+     */
+    private List<Literal> findFailed(List<Literal> assumptions) {
+        Map<Integer, Literal> assumed = new HashMap<>(); //code -> assumption
+
+        for (Literal l : assumptions) {
+            int code = Objects.requireNonNull(l).getCode();
+
+            //two opposite assumptions fail by themselves
+            if (assumed.containsKey(SymbolTable.opposite(code))) {
+                List<Literal> res = new ArrayList<>();
+                res.add(assumed.get(SymbolTable.opposite(code)));
+                res.add(l);
+
+                return res;
+            }
+
+            assumed.put(code, l);
+        }
+
+        Map<Clause, Integer> falsified = new IdentityHashMap<>(); //the literals of each clause that are false
+
+        for (int code : assumed.keySet()) {
+            int opposite = SymbolTable.opposite(code);
+
+            if (occurrences.count(opposite) == 0) continue;
+
+            for (Clause c : occurrences.get(opposite)) {
+                if (occurrences.isRemoved(c)) continue;
+
+                int count = falsified.merge(c, 1, Integer::sum);
+
+                if (count < c.size()) continue;
+
+                List<Literal> res = new ArrayList<>();
+
+                for (int i = 0; i < c.size(); i++) {
+                    res.add(assumed.get(SymbolTable.opposite(c.codeAt(i))));
+                }
+
+                return res;
+            }
+        }
+
+        return null;
+    }
+}
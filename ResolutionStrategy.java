@@ -0,0 +1,29 @@
+/**
+ * This enumeration represents the strategies that the given-clause loop
+ * can use to restrict the pairs of clauses that are resolved.
+ */
+public enum ResolutionStrategy {
+    SATURATION,       //every pair of clauses is resolved
+    SET_OF_SUPPORT,   //every resolution has a premise derived from the set of support
+    INPUT;            //every resolution has a premise in input and the other one derived from the set of support
+
+
+    @Override
+    public String toString() {
+        String res = "";
+
+        switch (this) {
+            case SATURATION:
+                res = "saturation";
+                break;
+            case SET_OF_SUPPORT:
+                res = "sos";
+                break;
+            case INPUT:
+                res = "input";
+                break;
+        }
+
+        return res;
+    }
+}
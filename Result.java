@@ -0,0 +1,9 @@
+/**
+ * This enumeration represents the result of a solver with a {@link Budget}:
+ * when the budget is exhausted before the end of the search, the result is UNKNOWN.
+ */
+public enum Result {
+    SATISFIABLE,
+    UNSATISFIABLE,
+    UNKNOWN;       //the search has been stopped, see Solver.getStopReason()
+}
@@ -0,0 +1,29 @@
+/**
+ * This enumeration represents the heuristics that the given-clause loop
+ * can use to choose the next clause to process.
+ */
+public enum SelectionHeuristic {
+    SHORTEST_FIRST,           //the clause with the fewest literals
+    AGE_WEIGHT,               //alternates the oldest clause and the shortest clauses
+    FEWEST_FRESH_VARIABLES;   //the clause with the fewest variables not yet processed
+
+
+    @Override
+    public String toString() {
+        String res = "";
+
+        switch (this) {
+            case SHORTEST_FIRST:
+                res = "shortest";
+                break;
+            case AGE_WEIGHT:
+                res = "age";
+                break;
+            case FEWEST_FRESH_VARIABLES:
+                res = "fresh";
+                break;
+        }
+
+        return res;
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * this interface represents a procedure that checks whether a set of clauses
+ * is satisfiable.
+ *
+ * A solver is created for a single set of clauses and owns all the state of its
+ * search, so many solvers can run at the same time on different threads.
+ * A single solver must not be used by more than one thread at a time.
+ */
+public interface Solver {
+
+    /**
+     * checks whether the set of clauses of this solver is satisfiable, using at most
+     * the resources of the budget. Once the result is SATISFIABLE or UNSATISFIABLE,
+     * the next calls return it without searching again.
+     *
+     * @param budget the resources available for the search.
+     * @return the result, UNKNOWN if the search has been stopped before the end.
+     * @throws NullPointerException if budget is null.
+     */
+    Result solve(Budget budget);
+
+    /**
+     * @return the reason why the last search has been stopped,
+     *         or null if its result is not UNKNOWN.
+     */
+    StopReason getStopReason();
+
+    /**
+     * @return the refutation found by the last search, if its result is UNSATISFIABLE
+     *         and the solver derives the empty clause by resolution. null, otherwise.
+     */
+    default Refutation getRefutation() {
+        return null;
+    }
+
+    /**
+     * checks whether the set of clauses of this solver is satisfiable, without limits.
+     * The search is performed only the first time that this method is called.
+     *
+     * @return true, if the set is satisfiable, false otherwise.
+     * @throws CancellationException if the thread is interrupted during the search.
+     * @throws OutOfMemoryError if the search exhausts the heap.
+     * @throws IllegalStateException if the strategy of the solver cannot prove that the set is satisfiable.
+     */
+    default boolean isSatisfiable() {
+        switch (solve(new Budget())) {
+            case SATISFIABLE:
+                return true;
+            case UNSATISFIABLE:
+                return false;
+            default:
+                if (getStopReason() == StopReason.OUT_OF_MEMORY) {
+                    throw new OutOfMemoryError("the search has exhausted the heap");
+                }
+
+                if (getStopReason() == StopReason.INCOMPLETE) {
+                    throw new IllegalStateException("the strategy cannot prove that the set is satisfiable");
+                }
+
+                throw new CancellationException("the search has been interrupted");
+        }
+    }
+}
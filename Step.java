@@ -1,11 +1,15 @@
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * this class represents a resolution step, used to track how the resolution method works
+ * this class represents a resolution step, used to track how the resolution method works.
+ * A step can also represent the removal of a clause from the set without resolution,
+ * as done by the preprocessing.
  */
 public class Step {
 
     //STATIC FIELDS
-    private static int count = 1;
+    private static final String SEPARATOR = "__________________________________________________________\n";
 
     //FIELDS
     private int stepNumber; //the number of this step.
@@ -15,19 +19,46 @@ public class Step {
     private Literal complementary; //the literal used by the resolution step
     private boolean isTautology; //is true if the conclusion is a tautology
     private boolean isAlreadyPresent; //is true if the conclusion is already present in the set. 
+    private Clause subsumedBy; //the clause that subsumes the conclusion, or null
+    private List<Clause> subsumed; //the clauses removed because they are subsumed by the conclusion, or null
+    private String removalReason; //the reason why premise1 is removed, or null for a resolution step
 
     //CONSTRUCTORS
 
-    public Step(Clause premise1, Clause premise2, Clause conclusion, Literal complementary) {
+    /**
+     * Constructs a resolution step.
+     * 
+     * @param stepNumber the number of the step in the trace of the solver, starting from 1.
+     * @param premise1 the first premise.
+     * @param premise2 the second premise.
+     * @param conclusion the resolving clause.
+     * @param complementary the literal of premise1 removed with its opposite.
+     */
+    public Step(int stepNumber, Clause premise1, Clause premise2, Clause conclusion, Literal complementary) {
         this.premise1 = premise1;
         this.premise2 = premise2;
         this.conclusion = conclusion;
         this.complementary = complementary;
 
-        this.stepNumber = count;
+        this.stepNumber = stepNumber;
         this.isTautology = false;
         this.isAlreadyPresent = false;
-        count++;
+        this.subsumedBy = null;
+        this.subsumed = null;
+        this.removalReason = null;
+    }
+
+    /**
+     * Constructs a step in which a clause is removed from the set without resolution.
+     * 
+     * @param stepNumber the number of the step in the trace of the solver, starting from 1.
+     * @param removed the clause removed from the set.
+     * @param reason the reason why the clause is removed, for example
+     *        "it contains the pure literal a".
+     */
+    public Step(int stepNumber, Clause removed, String reason) {
+        this(stepNumber, removed, null, null, null);
+        this.removalReason = reason;
     }
 
     //METHODS
@@ -47,15 +78,94 @@ public class Step {
         this.isAlreadyPresent = true;
     }
 
-    @Override
-    public String toString() {
-        StringBuilder res = new StringBuilder();
+    /**
+     * use this method to indicate that the conclusion is subsumed by a clause
+     * of the set considered by the resolution method (forward subsumption).
+     * 
+     * @param c the clause that subsumes the conclusion.
+     */
+    public void setSubsumedBy(Clause c) {
+        this.subsumedBy = c;
+    }
+
+    /**
+     * use this method to indicate that a clause of the set is removed because
+     * it is subsumed by the conclusion (backward subsumption).
+     * 
+     * @param c the clause subsumed by the conclusion.
+     */
+    public void addSubsumed(Clause c) {
+        if (this.subsumed == null) {
+            this.subsumed = new ArrayList<>();
+        }
+
+        this.subsumed.add(c);
+    }
+
+    /**
+     * @return the number of the step in the trace of the solver, starting from 1.
+     */
+    public int getStepNumber() {
+        return stepNumber;
+    }
 
-        res.append("STEP NUMBER " + stepNumber + ":\n");
-        res.append("First premise: " + premise1.toString() + "\n");
-        res.append("Second premise: " + premise2.toString() + "\n");
-        res.append("Conclusion: " + conclusion.toString() + "\n");
-        res.append("obtained by removing the literal \"" + complementary + "\" and its opposite.\n");
+    /**
+     * @return the first premise, or the removed clause if this is not a resolution step.
+     */
+    public Clause getPremise1() {
+        return premise1;
+    }
+
+    /**
+     * @return the second premise, or null if this is not a resolution step.
+     */
+    public Clause getPremise2() {
+        return premise2;
+    }
+
+    /**
+     * @return the resolving clause, or null if this is not a resolution step.
+     */
+    public Clause getConclusion() {
+        return conclusion;
+    }
+
+    /**
+     * @return true, if this is a resolution step. false, if a clause is removed without resolution.
+     */
+    public boolean isResolution() {
+        return removalReason == null;
+    }
+
+    /**
+     * @return true, if the conclusion is not added to the set, because it is a tautology,
+     *         it is already present or it is subsumed.
+     */
+    public boolean isDiscarded() {
+        return isTautology || isAlreadyPresent || subsumedBy != null;
+    }
+
+    /**
+     * appends the description of the step to the specified buffer, in the same form as toString.
+     *
+     * @param res the buffer.
+     * @return the buffer.
+     * @throws NullPointerException if res is null.
+     */
+    public StringBuilder appendTo(StringBuilder res) {
+        res.append("STEP NUMBER ").append(stepNumber).append(":\n");
+
+        if (removalReason != null) {
+            premise1.appendTo(res.append("The clause ")).append(" is REMOVED because ").append(removalReason).append(".\n");
+            res.append(SEPARATOR);
+
+            return res;
+        }
+
+        premise1.appendTo(res.append("First premise: ")).append('\n');
+        premise2.appendTo(res.append("Second premise: ")).append('\n');
+        conclusion.appendTo(res.append("Conclusion: ")).append('\n');
+        res.append("obtained by removing the literal \"").append(complementary).append("\" and its opposite.\n");
 
         if (isTautology) {
             res.append("The conclusion is DISCARDED because it is a tautology.\n");
@@ -65,8 +175,23 @@ public class Step {
             res.append("The conclusion is DISCARDED because it is already present in the set.\n");
         }
 
-        res.append("__________________________________________________________\n");
+        if (subsumedBy != null) {
+            subsumedBy.appendTo(res.append("The conclusion is DISCARDED because it is subsumed by ")).append(".\n");
+        }
 
-        return res.toString();
+        if (subsumed != null) {
+            for (Clause c : subsumed) {
+                c.appendTo(res.append("The clause ")).append(" is REMOVED because it is subsumed by the conclusion.\n");
+            }
+        }
+
+        res.append(SEPARATOR);
+
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
     }
 }
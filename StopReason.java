@@ -0,0 +1,12 @@
+/**
+ * This enumeration represents the reasons why a solver stops
+ * before the end of the search.
+ */
+public enum StopReason {
+    DEADLINE,             //the time of the budget has expired
+    GENERATED_CLAUSES,    //the maximum number of generated clauses has been reached
+    RETAINED_CLAUSES,     //the maximum number of retained clauses has been reached
+    CANCELLED,            //the flag of the budget has been set, or the thread has been interrupted
+    OUT_OF_MEMORY,        //the heap has been exhausted
+    INCOMPLETE;           //the strategy cannot prove that the set is satisfiable
+}
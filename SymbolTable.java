@@ -0,0 +1,153 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class without constructors interns the names of the atoms.
+ * Each name is stored only once and it is associated with a variable number,
+ * starting from 0.
+ *
+ * A literal is encoded as the integer 2*var + sign, where var is the variable
+ * number of its atom and sign is 0 for an atom and 1 for a negated atom.
+ * In this way the code of the opposite literal is obtained with a single XOR.
+ *
+ * The lookups do not take any lock: only the assignment of a new variable number
+ * is synchronized, and the names are published through a volatile array that is
+ * copied when it grows. The solvers do not size their arrays with the number of
+ * variables of the table, which only grows, but renumber the variables of the
+ * set they solve (see {@link VariableMap}).
+ */
+public final class SymbolTable {
+
+    //STATIC FIELDS
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>(); //name -> variable number
+    private static volatile String[] names = new String[16]; //variable number -> name
+    private static volatile int size = 0; //the variable numbers assigned so far
+    private static int auxiliaries = 0; //the auxiliary atoms created so far
+
+    private static final String AUXILIARY = "$"; //the prefix reserved to the names of the auxiliary atoms
+
+    private SymbolTable() {
+    }
+
+    //STATIC METHODS
+
+    /**
+     * returns the variable number of the specified name. if the name has never been
+     * interned, a new variable number is assigned to it.
+     *
+     * @param name the name of the atom.
+     * @return the variable number associated with the name.
+     * @throws NullPointerException if name is null.
+     * @throws IllegalArgumentException if name starts with the prefix of the auxiliary atoms.
+     */
+    public static int intern(String name) {
+        Objects.requireNonNull(name);
+        if (name.startsWith(AUXILIARY)) throw new IllegalArgumentException("the names starting with " + AUXILIARY + " are reserved");
+
+        Integer var = ids.get(name);
+
+        if (var != null) return var;
+
+        synchronized (SymbolTable.class) {
+            var = ids.get(name);
+
+            if (var == null) {
+                var = add(name);
+                ids.put(name, var);
+            }
+        }
+
+        return var;
+    }
+
+    /**
+     * creates a new auxiliary atom, which is a variable different from every other.
+     * the auxiliary atoms are not registered under their names, which start with a
+     * prefix that {@link #intern} rejects, so they are never confused with the atoms
+     * of the user, and the atoms created by two callers can be used in the same set.
+     *
+     * @return the variable number of the new auxiliary atom.
+     */
+    public static synchronized int auxiliary() {
+        return add(AUXILIARY + auxiliaries++);
+    }
+
+    /**
+     *
+     * @param var the variable number.
+     * @return the name associated with the variable number.
+     * @throws IndexOutOfBoundsException if the variable number has not been assigned.
+     */
+    public static String getName(int var) {
+        //the size is read first, so the array is at least as recent as the variable
+        if (var < 0 || var >= size) throw new IndexOutOfBoundsException("variable " + var + " is not assigned");
+
+        return names[var];
+    }
+
+    /**
+     *
+     * @return the number of variables interned so far.
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * assigns the next variable number to the specified name.
+     * it must be called while holding the lock of the class.
+     */
+    private static int add(String name) {
+        String[] a = names;
+        int var = size;
+
+        if (var == a.length) {
+            a = Arrays.copyOf(a, 2 * var);
+            names = a;
+        }
+
+        a[var] = name;
+        size = var + 1; //publishes the name
+
+        return var;
+    }
+
+    /**
+     *
+     * @param var the variable number.
+     * @param negated true if the literal is a negated atom.
+     * @return the code of the literal.
+     */
+    public static int encode(int var, boolean negated) {
+        return (var << 1) | (negated ? 1 : 0);
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return the variable number of the literal.
+     */
+    public static int variable(int code) {
+        return code >>> 1;
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return true, if the code represents a negated atom.
+     */
+    public static boolean isNegated(int code) {
+        return (code & 1) != 0;
+    }
+
+    /**
+     *
+     * @param code the code of a literal.
+     * @return the code of the opposite literal.
+     */
+    public static int opposite(int code) {
+        return code ^ 1;
+    }
+}
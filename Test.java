@@ -1,4 +1,21 @@
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * This class of tests is used to test the functioning of the resolution method 
@@ -9,59 +26,383 @@ import java.util.Scanner;
  * is satisfiable or not. 
  * if you write "trace" in the command line, the list of
  * steps of the resolution method is printed on standard output.
+ * With "stream" the steps are printed while they are performed, without keeping
+ * them in memory, and with "refutation" only the steps from which the empty
+ * clause is derived are printed.
  * 
  * if you write "formula" in the command line, then the test present
  * in the TestFormula class is executed.
  * In this case, the resolution method test is performed on some 
- * already written formulas.
+ * already written formulas. if it is followed by "tseitin", the formulas 
+ * are converted with the Tseitin encoding.
+ * 
+ * if you write "given" in the command line, the given-clause loop is used
+ * instead of the pairwise resolution. It can be followed by the name of the
+ * heuristic used to choose the given clause: "shortest" (the default), "age" or "fresh".
+ * With "sos" or "input" the given-clause loop uses the set-of-support or the input
+ * resolution strategy (see {@link ResolutionStrategy}), and with "support" followed by
+ * a number n the set of support is made of the last n clauses of the set in input
+ * (by default, all the clauses), also when the variables are eliminated first.
+ * 
+ * if you write "ordered" followed by "frequency", "appearance" or a list of atoms
+ * separated by commas, the ordered resolution is used, with the precedence on the atoms
+ * given by their occurrences, by their first appearance or by the list
+ * (see {@link AtomOrdering}). With "select" followed by "none", "maxneg" or "allneg"
+ * the ordered resolution also uses a selection function (see {@link LiteralSelection}).
+ * 
+ * if you write "eliminate" in the command line, the variables are eliminated by the
+ * bounded variable elimination (see {@link VariableElimination}) before the solver chosen
+ * by the other options, and the number of variables eliminated is printed.
+ * 
+ * if you write "cdcl" in the command line, the CDCL procedure is used instead 
+ * of the resolution method, and a model is printed if the set is satisfiable.
+ * 
+ * if you write "parallel" in the command line, the resolution method runs
+ * in the common fork-join pool, whose threads are shared by all the files.
+ * 
+ * if you write "incremental" in the command line, the clauses are added to an
+ * incremental session of the resolution method (see {@link ResolutionSession}).
+ * 
+ * if you write "core" and the set is unsatisfiable, the clauses in input used by
+ * the refutation found by the resolution method are printed.
+ * if you write "proof" followed by the path of a file and the set is unsatisfiable,
+ * the proof found by the resolution method is written in the file in a compact
+ * binary format and checked (see {@link Proof}); with "lrat" followed by the path
+ * of a file, it is written in the LRAT text format.
+ * 
+ * if you write "dimacs" followed by the path of a file, the set of clauses is read 
+ * from the file in the DIMACS CNF format instead of the standard input.
+ * if you write "todimacs", the set of clauses is printed in the DIMACS CNF format
+ * and its satisfiability is not checked.
+ * 
+ * the search can be limited by "timeout" followed by a number of milliseconds,
+ * "generated" followed by the maximum number of generated clauses and "retained"
+ * followed by the maximum number of retained clauses. When a limit is reached,
+ * the result is UNKNOWN.
+ * 
+ * if the first word is "batch", it must be followed by files or directories:
+ * all the files (and the ".txt" and ".cnf" files of the directories) are solved
+ * in the same JVM, and a table with the result and the time of each file is printed.
+ * The options of the solver and the limits are the same as above; moreover, "threads"
+ * followed by a number sets the files solved at the same time.
  */
 public class Test {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
         if (args.length != 0 && args[0].equals("formula")) {
-            TestFormula.test();
+            TestFormula.test(args.length > 1 && args[1].equals("tseitin"));
+            return;
+        }
+
+        if (args.length != 0 && args[0].equals("batch")) {
+            batch(args);
             return;
         }
 
-        Scanner sc = new Scanner(System.in);
-        ClauseSet f = new ClauseSet();
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("dimacs")) {
+                solve(Dimacs.read(Paths.get(args[i + 1])), args);
+                return;
+            }
+        }
 
-        while (sc.hasNext()) {
-            Clause c = new Clause();
-            String[] literals = sc.nextLine().split(" ");
+        solve(PlainFormat.read(new InputStreamReader(System.in)), args);
+    }
 
-            for (String litName : literals) {
-                if (!litName.equals("")) {
-                    if (litName.charAt(0) == '~') {
-                        c.add(new NegAtom(litName.substring(1)));
-                    } else {
-                        c.add(new Atom(litName));
-                    }
-                }
+    /**
+     * prints whether the set of clauses is satisfiable, with the options in args.
+     */
+    private static void solve(ClauseSet f, String[] args) throws IOException {
+
+        Trace trace = new Trace();
+        String proofFile = null; //the file of the binary proof, or null
+        String lratFile = null; //the file of the LRAT proof, or null
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.equals("proof") && i + 1 < args.length) {
+                proofFile = args[++i];
+            } else if (arg.equals("lrat") && i + 1 < args.length) {
+                lratFile = args[++i];
+            } else if (arg.equals("todimacs")) {
+                Dimacs.write(f, new OutputStreamWriter(System.out));
+                return;
+            } else if (arg.equals("trace")) {
+                trace = new Trace(Trace.Mode.FULL);
+            } else if (arg.equals("stream")) {
+                trace = new Trace(new OutputStreamWriter(System.out));
+            } else if (arg.equals("refutation")) {
+                trace = new Trace(Trace.Mode.REFUTATION);
             }
+        }
+
+        System.out.println("\nYour set in input:\n" + f + "\n");
+
+        Trace steps = trace;
+        Solver solver = solvers(args, () -> steps).apply(f);
+        Result sodd = solver.solve(budget(args));
+
+        //after the variable elimination, the steps are the ones of the solver of the reduced set
+        Solver backend = (solver instanceof VariableElimination) ? ((VariableElimination) solver).getBackend() : solver;
 
-            if (!c.isEmpty()) {
-                f.add(c);
+        if (trace.getMode() == Trace.Mode.FULL || trace.getMode() == Trace.Mode.REFUTATION) {
+            if (backend instanceof Resolution) {
+                ((Resolution) backend).printTrace();
+            } else if (backend instanceof GivenClauseResolution) {
+                ((GivenClauseResolution) backend).printTrace();
             }
         }
 
-        sc.close();
+        if (solver instanceof VariableElimination) {
+            VariableElimination elimination = (VariableElimination) solver;
 
+            System.out.println("\nVariables eliminated: " + elimination.getEliminatedCount());
 
-        boolean enableSteps = false;
-        if (args.length != 0 && args[0].equals("trace")) {
-            enableSteps = true;
+            if (sodd == Result.SATISFIABLE && elimination.getModel() != null) {
+                System.out.println("Model: " + elimination.getModel());
+            }
         }
 
-        System.out.println("\nYour set in input:\n" + f + "\n");
-        
-        boolean sodd = Resolution.isSatisfiable(f, enableSteps);
+        if (sodd == Result.SATISFIABLE && solver instanceof Cdcl) {
+            System.out.println("Model: " + ((Cdcl) solver).getModel());
+        }
+
+        if (sodd == Result.UNSATISFIABLE && Arrays.asList(args).contains("core")) {
+            printCore(f, solver.getRefutation());
+        }
+
+        if (sodd == Result.UNSATISFIABLE && (proofFile != null || lratFile != null)) {
+            writeProof(f, solver.getRefutation(), proofFile, lratFile);
+        }
 
-        if (sodd) {
+        if (sodd == Result.SATISFIABLE) {
             System.out.println("\nSATISFIABLE");
-        } else {
+        } else if (sodd == Result.UNSATISFIABLE) {
             System.out.println("\nUNSATISFIABLE");
+        } else {
+            System.out.println("\nUNKNOWN, the search has been stopped: " + solver.getStopReason());
+        }
+    }
+
+    /**
+     * prints the clauses in input used by the refutation.
+     */
+    private static void printCore(ClauseSet f, Refutation refutation) {
+        if (refutation == null) {
+            System.out.println("\nNo core: the cores are produced only by the resolution method.");
+            return;
+        }
+
+        ClauseSet core = refutation.getCore();
+
+        System.out.println("\nUnsat core (" + core.size() + " of " + f.size() + " clauses, "
+            + refutation.size() + " resolvents):\n" + core);
+    }
+
+    /**
+     * writes the proof given by the refutation in the files that are not null,
+     * and checks the binary one.
+     */
+    private static void writeProof(ClauseSet f, Refutation refutation, String proofFile, String lratFile)
+            throws IOException {
+
+        if (refutation == null) {
+            System.out.println("\nNo proof: the proofs are produced only by the resolution method.");
+            return;
+        }
+
+        Proof proof = new Proof(f, refutation.getSteps());
+
+        if (lratFile != null) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(lratFile), StandardCharsets.US_ASCII)) {
+                proof.writeLrat(out);
+            }
+
+            System.out.println("\nThe LRAT proof of " + proof.size() + " clauses is written in " + lratFile);
+        }
+
+        if (proofFile != null) {
+            try (OutputStream out = Files.newOutputStream(Paths.get(proofFile))) {
+                proof.writeBinary(out);
+            }
+
+            boolean valid;
+
+            try (InputStream in = Files.newInputStream(Paths.get(proofFile))) {
+                valid = ProofChecker.check(f, in);
+            }
+
+            System.out.println("\nThe proof of " + proof.size() + " clauses is written in " + proofFile
+                + " (" + Files.size(Paths.get(proofFile)) + " bytes), and it is " + (valid ? "VALID" : "NOT VALID"));
+        }
+    }
+
+    /**
+     * solves the files and the directories in args, and prints the report.
+     */
+    private static void batch(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> paths = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (VALUED.contains(args[i])) {
+                i++; //the value is not a path
+            } else if (!OPTIONS.contains(args[i])) {
+                paths.add(Paths.get(args[i]));
+            }
+        }
+
+        List<Batch.Outcome> outcomes = Batch.run(Batch.collect(paths), solvers(args, Trace::new), threads, budget(args));
+        Batch.printReport(outcomes, System.out);
+    }
+
+    /**
+     * @return the budget with the limits in args.
+     */
+    private static Budget budget(String[] args) {
+        Budget res = new Budget();
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("timeout")) {
+                res.setTimeout(Long.parseLong(args[i + 1]), TimeUnit.MILLISECONDS);
+            } else if (args[i].equals("generated")) {
+                res.setMaxGenerated(Long.parseLong(args[i + 1]));
+            } else if (args[i].equals("retained")) {
+                res.setMaxRetained(Long.parseLong(args[i + 1]));
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * @param traces the function that gives the trace of each solver.
+     * @return the function that creates the solver chosen by the options in args.
+     */
+    private static Function<ClauseSet, Solver> solvers(String[] args, Supplier<Trace> traces) {
+        boolean eliminate = Arrays.asList(args).contains("eliminate");
+
+        //the backend is created for each set, since its set of support is taken from the set in input
+        return f -> {
+            Function<ClauseSet, Solver> backend = backends(args, traces, f);
+
+            return eliminate ? new VariableElimination(f, backend) : backend.apply(f);
+        };
+    }
+
+    /**
+     * @param traces the function that gives the trace of each solver.
+     * @param input the set in input, whose last clauses are the set of support. The set
+     *        solved by the backend can be reduced by the eliminations, so its clauses are
+     *        in the set of support if they are derived from the ones of input.
+     * @return the function that creates the solver chosen by the options in args,
+     *         without the variable elimination.
+     */
+    private static Function<ClauseSet, Solver> backends(String[] args, Supplier<Trace> traces, ClauseSet input) {
+        SelectionHeuristic heuristic = null; //null if the given-clause loop is not used
+        ResolutionStrategy strategy = ResolutionStrategy.SATURATION;
+        int supportSize = -1; //the number of clauses of the support, or -1 for all the clauses
+        String precedence = null; //the value of "ordered", or null if the resolution is not ordered
+        LiteralSelection selection = LiteralSelection.NONE;
+        boolean cdcl = false;
+        boolean parallel = false;
+        boolean incremental = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+
+            if (arg.equals("support") && i + 1 < args.length) {
+                supportSize = Integer.parseInt(args[++i]);
+            } else if (arg.equals("ordered") && i + 1 < args.length) {
+                precedence = args[++i];
+            } else if (arg.equals("select") && i + 1 < args.length) {
+                String name = args[++i];
+
+                for (LiteralSelection sel : LiteralSelection.values()) {
+                    if (name.equals(sel.toString())) selection = sel;
+                }
+            } else if (arg.equals("cdcl")) {
+                cdcl = true;
+            } else if (arg.equals("incremental")) {
+                incremental = true;
+            } else if (arg.equals("parallel")) {
+                parallel = true;
+            } else if (arg.equals("given")) {
+                heuristic = SelectionHeuristic.SHORTEST_FIRST;
+            } else if (arg.equals(ResolutionStrategy.SET_OF_SUPPORT.toString())) {
+                strategy = ResolutionStrategy.SET_OF_SUPPORT;
+            } else if (arg.equals(ResolutionStrategy.INPUT.toString())) {
+                strategy = ResolutionStrategy.INPUT;
+            } else {
+                for (SelectionHeuristic h : SelectionHeuristic.values()) {
+                    if (heuristic != null && arg.equals(h.toString())) {
+                        heuristic = h;
+                    }
+                }
+            }
+        }
+
+        if (cdcl) return Cdcl::new;
+
+        if (incremental) return ResolutionSession::new;
+
+        //the parallel solvers share the common pool, also in batch mode
+        if (parallel) return ParallelResolution::new;
+
+        //the strategies are implemented only by the given-clause loop
+        if (strategy != ResolutionStrategy.SATURATION && heuristic == null) heuristic = SelectionHeuristic.SHORTEST_FIRST;
+
+        if (heuristic != null) {
+            SelectionHeuristic h = heuristic;
+            ResolutionStrategy st = strategy;
+            ClauseSet support = lastClauses(input, supportSize);
+            return s -> new GivenClauseResolution(s, h, traces.get(), st, support);
+        }
+
+        if (precedence != null) {
+            String p = precedence;
+            LiteralSelection sel = selection;
+            return s -> new Resolution(s, traces.get(), ordering(s, p), sel);
         }
+
+        return s -> new Resolution(s, traces.get());
     }
+
+    /**
+     * @return the precedence on the atoms of s given by the value of "ordered".
+     */
+    private static AtomOrdering ordering(ClauseSet s, String precedence) {
+        if (precedence.equals("frequency")) return AtomOrdering.byFrequency(s);
+
+        if (precedence.equals("appearance")) return AtomOrdering.byAppearance(s);
+
+        return AtomOrdering.of(Arrays.asList(precedence.split(",")));
+    }
+
+    /**
+     * @return the last n clauses of s, or all of them if n is negative.
+     */
+    private static ClauseSet lastClauses(ClauseSet s, int n) {
+        ClauseSet res = new ClauseSet();
+        int skipped = (n < 0) ? 0 : s.size() - n;
+
+        for (Clause c : s) {
+            if (skipped-- <= 0) res.add(c);
+        }
+
+        return res;
+    }
+
+    //the words of the command line followed by a value
+    private static final Set<String> VALUED = new HashSet<>(Arrays.asList(
+        "timeout", "generated", "retained", "proof", "lrat", "support", "ordered", "select"));
+
+    //the words of the command line that are not paths, in batch mode
+    private static final Set<String> OPTIONS = new HashSet<>(Arrays.asList(
+        "trace", "stream", "refutation", "core", "cdcl", "parallel", "incremental", "given", "shortest", "age", "fresh",
+        "sos", "input", "eliminate"));
 }
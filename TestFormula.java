@@ -9,10 +9,20 @@ import java.util.List;
  * - the input formula.
  * - the corresponding set of clauses.
  * - and finally prints whether it is satisfiable or not.
+ * 
+ * the set of clauses can be computed with the Tseitin encoding 
+ * instead of the equivalent CNF.
  */
 public class TestFormula {
     
     public static void test() {
+        test(false);
+    }
+
+    /**
+     * @param tseitin true, if the formulas are converted with the Tseitin encoding.
+     */
+    public static void test(boolean tseitin) {
 
         Formula a = new AtomicFormula("a");
         Formula b = new AtomicFormula("b");
@@ -84,7 +94,7 @@ public class TestFormula {
             System.out.println("Your formula in input:");
             System.out.println(f);
             
-            ClauseSet cnf = f.toCnf();
+            ClauseSet cnf = tseitin ? f.toTseitinCnf() : f.toCnf();
             
             System.out.println("\nThe result clause set is:");
             System.out.println(cnf);
@@ -0,0 +1,270 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * this class collects the steps performed by a resolution solver, in one of these modes:
+ *
+ * - OFF: no step is created, so the trace costs neither time nor memory.
+ * - FULL: every step is kept until the next search.
+ * - STREAM: every step is written to a Writer as soon as it is complete, and then released.
+ * - REFUTATION: no step is created during the search, and at the end the steps from which
+ *   the empty clause is derived are rebuilt from the premises of the resolvents
+ *   (see {@link Refutation}), and numbered again from 1.
+ *
+ * The solver creates a step with resolution or removal, and then it describes the
+ * conclusion with the setters, which are applied to the last step created.
+ * The steps are written through a buffer that is reused for all of them.
+ *
+ * A trace belongs to a single solver, except a trace with mode OFF, which does not
+ * change and can be shared.
+ */
+public class Trace {
+
+    /**
+     * the modes of a trace.
+     */
+    public enum Mode {
+        OFF, FULL, STREAM, REFUTATION
+    }
+
+    //FIELDS
+    private final Mode mode;
+    private final Writer out; //the writer of the steps in STREAM mode, or null
+    private final List<Step> steps; //all the steps in FULL mode, the refutation in REFUTATION mode
+    private final StringBuilder buffer; //the text of the step being written
+    private char[] chars; //the characters of the buffer, passed to the writer
+    private Step last; //the last step, which can still be changed by the solver, or null
+    private Clause empty; //the empty clause derived in REFUTATION mode, or null
+    private int count; //the number of steps created
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a trace with mode OFF, which does not record anything.
+     */
+    public Trace() {
+        this(Mode.OFF);
+    }
+
+    /**
+     * Constructs a trace that keeps its steps in memory.
+     *
+     * @param mode OFF, FULL or REFUTATION.
+     * @throws NullPointerException if mode is null.
+     * @throws IllegalArgumentException if mode is STREAM, which requires a writer.
+     */
+    public Trace(Mode mode) {
+        this(mode, null);
+
+        if (mode == Mode.STREAM) throw new IllegalArgumentException("a trace in STREAM mode requires a writer");
+    }
+
+    /**
+     * Constructs a trace in STREAM mode, which writes each step as soon as it is complete.
+     *
+     * @param out the writer of the steps. It is flushed, but not closed, at the end of each search.
+     * @throws NullPointerException if out is null.
+     */
+    public Trace(Writer out) {
+        this(Mode.STREAM, Objects.requireNonNull(out));
+    }
+
+    private Trace(Mode mode, Writer out) {
+        this.mode = Objects.requireNonNull(mode);
+        this.out = out;
+        this.steps = new ArrayList<>();
+        this.buffer = new StringBuilder();
+        this.chars = new char[0];
+        this.last = null;
+        this.empty = null;
+        this.count = 0;
+    }
+
+    //METHODS
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return true if the steps are created during the search, in FULL and STREAM mode.
+     *         The callers can use it to avoid building the arguments of the steps.
+     */
+    public boolean isEnabled() {
+        return mode == Mode.FULL || mode == Mode.STREAM;
+    }
+
+    /**
+     * records a resolution step, which becomes the last step.
+     *
+     * @param premise1 the first premise.
+     * @param premise2 the second premise.
+     * @param conclusion the resolving clause.
+     * @param complementary the code of the literal of premise1 removed with its opposite.
+     *        The literal is created only if the steps are created.
+     */
+    public void resolution(Clause premise1, Clause premise2, Clause conclusion, int complementary) {
+        if (mode == Mode.REFUTATION && conclusion.isEmpty()) empty = conclusion;
+
+        if (!isEnabled()) return;
+
+        add(new Step(count + 1, premise1, premise2, conclusion, Literal.fromCode(complementary)));
+    }
+
+    /**
+     * records a resolution step whose conclusion is a tautology not built by the solver
+     * (see {@link Clause#resolveUnlessTautology}), which becomes the last step.
+     * The conclusion and the literal are built only if the steps are created.
+     *
+     * @param premise1 the first premise.
+     * @param premise2 the second premise.
+     * @param complementary the code of the literal of premise1 removed with its opposite.
+     */
+    public void tautology(Clause premise1, Clause premise2, int complementary) {
+        if (!isEnabled()) return;
+
+        add(new Step(count + 1, premise1, premise2, Clause.resolve(premise1, premise2, complementary),
+            Literal.fromCode(complementary)));
+        last.setTautology();
+    }
+
+    /**
+     * records the removal of a clause without resolution, which becomes the last step.
+     *
+     * @param removed the clause removed from the set.
+     * @param reason the reason why the clause is removed.
+     */
+    public void removal(Clause removed, String reason) {
+        if (!isEnabled()) return;
+
+        add(new Step(count + 1, removed, reason));
+    }
+
+    /**
+     * indicates that the conclusion of the last step is a tautology.
+     */
+    public void setTautology() {
+        if (last != null) last.setTautology();
+    }
+
+    /**
+     * indicates that the conclusion of the last step is already present in the set.
+     */
+    public void setAlreadyPresent() {
+        if (last != null) last.setAlreadyPresent();
+    }
+
+    /**
+     * indicates that the conclusion of the last step is subsumed by c.
+     */
+    public void setSubsumedBy(Clause c) {
+        if (last != null) last.setSubsumedBy(c);
+    }
+
+    /**
+     * indicates that c is removed because it is subsumed by the conclusion of the last step.
+     */
+    public void addSubsumed(Clause c) {
+        if (last != null) last.addSubsumed(c);
+    }
+
+    /**
+     * completes the last step and ends the search: in STREAM mode the writer is flushed,
+     * in REFUTATION mode the steps that do not contribute to the empty clause are released.
+     *
+     * @throws UncheckedIOException if the steps cannot be written.
+     */
+    public void finish() {
+        if (mode == Mode.OFF) return;
+
+        complete();
+
+        if (mode == Mode.STREAM) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else if (mode == Mode.REFUTATION) {
+            if (empty != null) steps.addAll(new Refutation(empty).getSteps());
+
+            empty = null;
+        }
+    }
+
+    /**
+     * removes all the steps, before a new search.
+     */
+    public void clear() {
+        if (mode == Mode.OFF) return;
+
+        steps.clear();
+        last = null;
+        empty = null;
+        count = 0;
+    }
+
+    /**
+     * @return the steps kept: all of them in FULL mode, the steps of the refutation
+     *         in REFUTATION mode after the end of the search, none in the other modes.
+     */
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * writes the steps kept, each of them followed by an empty line.
+     *
+     * @param w the writer. It is not flushed or closed.
+     * @throws IOException if an I/O error occurs.
+     * @throws NullPointerException if w is null.
+     */
+    public void write(Writer w) throws IOException {
+        Objects.requireNonNull(w);
+
+        for (Step st : steps) {
+            write(st, w);
+        }
+    }
+
+    private void add(Step step) {
+        complete();
+
+        count++;
+        last = step;
+
+        if (mode == Mode.FULL) steps.add(step);
+    }
+
+    /**
+     * handles the last step, which cannot change any more.
+     */
+    private void complete() {
+        if (last == null) return;
+
+        if (mode == Mode.STREAM) {
+            try {
+                write(last, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        last = null;
+    }
+
+    private void write(Step st, Writer w) throws IOException {
+        buffer.setLength(0);
+        st.appendTo(buffer).append('\n');
+
+        if (chars.length < buffer.length()) chars = new char[Math.max(buffer.length(), 2 * chars.length)];
+
+        buffer.getChars(0, buffer.length(), chars, 0);
+        w.write(chars, 0, buffer.length());
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class without constructors converts a formula into an equisatisfiable
+ * set of clauses, whose size is linear in the size of the formula.
+ *
+ * Each compound subformula g (except the negations) is named by a fresh atom x,
+ * and the clauses that define x are added to the set (Tseitin encoding).
+ * Following Plaisted and Greenbaum, only the implication required by the polarity
+ * of g is encoded: x -> g if g occurs positively, g -> x if it occurs negatively,
+ * both if it occurs under an IFF or with both polarities.
+ * Finally, the set contains the unit clause with the name of the whole formula.
+ *
+ * The result is not equivalent to the formula, because of the new atoms,
+ * but it is satisfiable if and only if the formula is satisfiable.
+ *
+ * The new atoms are auxiliary atoms of the {@link SymbolTable}, created by each
+ * conversion, so they are never confused with an atom of a formula, and the results
+ * of two conversions can be joined into one set (for example a knowledge base and
+ * a negated query).
+ */
+public class Tseitin {
+
+    private static final int POSITIVE = FormulaDag.POSITIVE;
+    private static final int NEGATIVE = FormulaDag.NEGATIVE;
+
+    /**
+     * converts the specified formula into an equisatisfiable set of clauses.
+     *
+     * @param f the formula to convert.
+     * @return the set of clauses.
+     * @throws NullPointerException if f is null.
+     */
+    public static ClauseSet toCnf(Formula f) {
+        Objects.requireNonNull(f);
+
+        //identical subformulas are represented by the same node, so they are named once
+        FormulaDag dag = new FormulaDag(f);
+        int[] polarities = dag.polarities();
+        Literal[] names = new Literal[dag.size()];
+        ClauseSet res = new ClauseSet();
+
+        //the children of a node have smaller numbers, so they are named before the node
+        for (int n = 0; n < dag.size(); n++) {
+            if (polarities[n] == 0) continue; //the node is not reachable from the root
+
+            if (dag.isAtom(n)) {
+                names[n] = Literal.fromCode(dag.getAtom(n));
+            } else if (dag.getConnective(n) == Connective.NOT) {
+                names[n] = names[dag.getLeft(n)].getOpposite();
+            } else {
+                names[n] = Literal.fromCode(SymbolTable.encode(SymbolTable.auxiliary(), false));
+                define(names[n], dag.getConnective(n), names[dag.getLeft(n)], names[dag.getRight(n)],
+                    polarities[n], res);
+            }
+        }
+
+        res.add(new Clause(names[dag.root()]));
+
+        return res;
+    }
+
+    /**
+     * adds to res the clauses of x -> (a op b) if the polarity is positive,
+     * and of (a op b) -> x if the polarity is negative.
+     */
+    private static void define(Literal x, Connective op, Literal a, Literal b, int polarity, ClauseSet res) {
+        Literal notX = x.getOpposite();
+        Literal notA = a.getOpposite();
+        Literal notB = b.getOpposite();
+        boolean pos = (polarity & POSITIVE) != 0;
+        boolean neg = (polarity & NEGATIVE) != 0;
+
+        switch (op) {
+            case AND:
+                if (pos) {
+                    add(res, notX, a);
+                    add(res, notX, b);
+                }
+                if (neg) add(res, x, notA, notB);
+                break;
+            case OR:
+                if (pos) add(res, notX, a, b);
+                if (neg) {
+                    add(res, x, notA);
+                    add(res, x, notB);
+                }
+                break;
+            case IMPLIES:
+                if (pos) add(res, notX, notA, b);
+                if (neg) {
+                    add(res, x, a);
+                    add(res, x, notB);
+                }
+                break;
+            case IFF:
+                if (pos) {
+                    add(res, notX, notA, b);
+                    add(res, notX, a, notB);
+                }
+                if (neg) {
+                    add(res, x, a, b);
+                    add(res, x, notA, notB);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("the connective must be binary");
+        }
+    }
+
+    private static void add(ClauseSet res, Literal... literals) {
+        Clause c = new Clause(Arrays.asList(literals));
+
+        if (!c.isTautology()) res.add(c);
+    }
+}
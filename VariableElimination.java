@@ -0,0 +1,440 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class implements the bounded variable elimination of Davis and Putnam,
+ * as a preprocessing applied to a set of clauses before another solver (the backend).
+ *
+ * A variable x is eliminated by replacing the clauses that contain x or ~x with their
+ * resolvents upon x that are not tautologies (see {@link Clause#resolveUnlessTautology}),
+ * which preserves the satisfiability of the set. A variable is eliminated only if neither
+ * the number of clauses nor the number of literals of the set grows, so a pure literal is
+ * always eliminated. The variables are tried from the cheapest one, with the fewest pairs
+ * of clauses to resolve, and a variable is tried again when its clauses change. A variable
+ * with more than MAX_OCCURRENCES occurrences, or more than MAX_PAIRS pairs of clauses to
+ * resolve, is not tried, unless it is pure.
+ *
+ * The clauses removed by each elimination are recorded, so a model of the reduced set is
+ * extended to a model of the set in input. The resolvents are linked to their premises,
+ * so a refutation found by the backend goes back to the clauses in input.
+ */
+public class VariableElimination implements Solver {
+
+    //STATIC FIELDS
+    private static final int MAX_OCCURRENCES = 64; //the occurrences of a variable that is tried
+    private static final int MAX_PAIRS = 1024; //the pairs of clauses of a variable that is tried
+
+    //FIELDS
+    private final ClauseSet input; //the copy of the set in input
+    private final Function<ClauseSet, Solver> backend;
+    private final List<Elimination> eliminations; //in the order in which they have been applied
+    private ClauseSet reduced; //the set after the eliminations applied so far, or null before the first search
+    private boolean reducedFully; //true if no other variable can be eliminated from the reduced set
+    private Solver solver; //the backend for the reduced set, or null if it has not been created
+    private Clause empty; //the empty clause in input or derived by the eliminations, or null
+    private long generated; //the resolvents computed by the eliminations
+    private Result result; //null before the first search
+    private StopReason stopReason;
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs a new solver for the specified set of clauses.
+     * The set is not modified.
+     *
+     * @param s the set of clauses.
+     * @param backend the function that creates the solver of the set reduced by the
+     *        eliminations. It is not called if the eliminations decide the satisfiability.
+     * @throws NullPointerException if s or backend are null.
+     * @throws IllegalArgumentException if s is empty.
+     */
+    public VariableElimination(ClauseSet s, Function<ClauseSet, Solver> backend) {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(backend);
+        if (s.isEmpty()) throw new IllegalArgumentException("the clause set in input is empty");
+
+        this.input = s.copy();
+        this.backend = backend;
+        this.eliminations = new ArrayList<>();
+        this.reduced = null;
+        this.reducedFully = false;
+        this.solver = null;
+        this.empty = null;
+        this.generated = 0;
+        this.result = null;
+        this.stopReason = null;
+    }
+
+    //METHODS
+
+    /**
+     * {@inheritDoc}
+     * The eliminations are applied by the first search, and the backend gets what is
+     * left of the budget. If the budget is exhausted during the eliminations, the ones
+     * already applied are kept, and the next search goes on from the partially reduced
+     * set; otherwise, a search stopped by the budget goes on as the backend does.
+     * If the memory is exhausted during the eliminations, they are discarded.
+     */
+    @Override
+    public Result solve(Budget budget) {
+        Objects.requireNonNull(budget);
+
+        if (result == Result.SATISFIABLE || result == Result.UNSATISFIABLE) return result;
+
+        stopReason = null;
+
+        Budget left = budget;
+
+        if (!reducedFully) {
+            long start = System.nanoTime();
+
+            try {
+                if (reduced == null) {
+                    reduced = input.copy();
+                    reduced.removeTautologies();
+                }
+
+                generated = 0;
+                eliminate(reduced, budget.start());
+
+                if (stopReason == null) reducedFully = true;
+            } catch (OutOfMemoryError e) {
+                //an elimination may have been applied only in part, so all of them are discarded
+                //and the clauses are released, so the JVM can go on
+                reduced = null;
+                eliminations.clear();
+                empty = null;
+                stopReason = StopReason.OUT_OF_MEMORY;
+            }
+
+            //the eliminations stopped by the budget are resumed by the next search
+            if (stopReason != null) return result = Result.UNKNOWN;
+
+            left = budget.remaining(System.nanoTime() - start, generated);
+        }
+
+        if (empty != null) return result = Result.UNSATISFIABLE;
+
+        if (reduced.isEmpty()) return result = Result.SATISFIABLE;
+
+        if (solver == null) solver = backend.apply(reduced);
+
+        result = solver.solve(left);
+        stopReason = solver.getStopReason();
+
+        return result;
+    }
+
+    @Override
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return the refutation of the empty clause in input or derived by the eliminations, or else the one found by the
+     *         backend, which also contains the eliminations from which its clauses derive.
+     */
+    @Override
+    public Refutation getRefutation() {
+        if (empty != null) return new Refutation(empty);
+
+        return (solver != null) ? solver.getRefutation() : null;
+    }
+
+    /**
+     * @return the number of variables eliminated so far, also by the searches stopped
+     *         during the eliminations.
+     */
+    public int getEliminatedCount() {
+        return eliminations.size();
+    }
+
+    /**
+     * @return the backend that solves the reduced set, or null if it has not been created.
+     */
+    public Solver getBackend() {
+        return solver;
+    }
+
+    /**
+     * @return the list of the literals that are true in a model of the set in input,
+     *         one for each variable of the set, or null if the model of the reduced set
+     *         is not known, because the backend is not a {@link Cdcl}.
+     * @throws IllegalStateException if the result of the last search is not SATISFIABLE.
+     */
+    public List<Literal> getModel() {
+        if (result != Result.SATISFIABLE) throw new IllegalStateException("no model has been found");
+
+        Map<Integer, Boolean> values = new HashMap<>(); //variable number -> value
+
+        if (solver instanceof Cdcl) {
+            for (Literal l : ((Cdcl) solver).getModel()) {
+                values.put(SymbolTable.variable(l.getCode()), !SymbolTable.isNegated(l.getCode()));
+            }
+        } else if (!reduced.isEmpty()) {
+            return null;
+        }
+
+        //each variable satisfies its removed clauses, given the values of the variables eliminated later
+        for (int i = eliminations.size() - 1; i >= 0; i--) {
+            Elimination e = eliminations.get(i);
+            boolean value = false;
+
+            for (Clause c : e.clauses) {
+                if (c.contains(Literal.fromCode(SymbolTable.encode(e.var, false))) && !isSatisfied(c, e.var, values)) {
+                    value = true;
+                    break;
+                }
+            }
+
+            values.put(e.var, value);
+        }
+
+        //the variables without a value are false
+        Set<Integer> vars = new LinkedHashSet<>();
+
+        for (Clause c : input) {
+            for (int k = 0; k < c.size(); k++) {
+                vars.add(SymbolTable.variable(c.codeAt(k)));
+            }
+        }
+
+        List<Literal> res = new ArrayList<>();
+
+        for (int var : vars) {
+            res.add(Literal.fromCode(SymbolTable.encode(var, !values.getOrDefault(var, false))));
+        }
+
+        return Collections.unmodifiableList(res);
+    }
+
+    /**
+     * @return true, if a literal of c, except the ones of the variable skipVar, is true.
+     *         The variables without a value are false.
+     */
+    private static boolean isSatisfied(Clause c, int skipVar, Map<Integer, Boolean> values) {
+        for (int k = 0; k < c.size(); k++) {
+            int code = c.codeAt(k);
+            int var = SymbolTable.variable(code);
+
+            if (var != skipVar && values.getOrDefault(var, false) != SymbolTable.isNegated(code)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * eliminates the variables of s, from the cheapest one, until no variable can be
+     * eliminated without growing the set or the empty clause is derived. If s contains
+     * the empty clause, no variable is eliminated. If the budget is exhausted, stopReason
+     * is set and s is left partially reduced, with each elimination either applied and
+     * recorded or not applied at all, so it can be reduced further by another call.
+     * the set must not contain tautologies.
+     *
+     * @param s the set of clauses. It is modified by this method.
+     * @param meter the meter of the budget of the search.
+     */
+    private void eliminate(ClauseSet s, Budget.Meter meter) {
+        OccurrenceIndex occurrences = new OccurrenceIndex();
+        VariableMap vars = new VariableMap(s); //the counts are indexed by the local numbers of the variables
+        int[] counts = new int[2 * vars.size()]; //local code -> clauses of s that contain it
+
+        boolean[] eliminated = new boolean[vars.size()]; //local variable -> eliminated
+
+        //the candidates are encoded as (cost << 32) | local variable, so the cheapest one comes first
+        PriorityQueue<Long> candidates = new PriorityQueue<>();
+
+        for (Clause c : s) {
+            //the empty clause in input has no variable to eliminate, so it is the refutation
+            if (c.isEmpty()) {
+                empty = c;
+                return;
+            }
+
+            occurrences.add(c);
+
+            for (int k = 0; k < c.size(); k++) {
+                counts[vars.localCode(c.codeAt(k))]++;
+            }
+        }
+
+        for (int var = 0; var < vars.size(); var++) {
+            if (isCandidate(counts, var)) candidates.add(candidate(counts, var));
+        }
+
+        while (!candidates.isEmpty()) {
+            StopReason reason = meter.tick(generated, s.size());
+
+            if (reason != null) {
+                stopReason = reason;
+                return;
+            }
+
+            long next = candidates.poll();
+            int var = (int) next;
+
+            //an entry is stale if the clauses of the variable have changed since it has been added
+            if (eliminated[var] || (next >>> 32) != cost(counts, var)) continue;
+
+            List<Clause> resolvents = new ArrayList<>();
+            List<Clause> removed = tryEliminate(s, occurrences, vars.global(var), resolvents, meter);
+
+            if (empty != null || stopReason != null) return;
+
+            if (removed == null) continue;
+
+            eliminated[var] = true;
+            eliminations.add(new Elimination(vars.global(var), removed));
+
+            //the variables of the removed clauses and of the resolvents are tried again
+            Set<Integer> touched = new LinkedHashSet<>();
+
+            for (Clause c : removed) {
+                for (int k = 0; k < c.size(); k++) {
+                    int code = vars.localCode(c.codeAt(k));
+
+                    counts[code]--;
+                    touched.add(SymbolTable.variable(code));
+                }
+            }
+
+            //the resolvents only contain variables of the removed clauses
+            for (Clause c : resolvents) {
+                for (int k = 0; k < c.size(); k++) {
+                    counts[vars.localCode(c.codeAt(k))]++;
+                }
+            }
+
+            for (int v : touched) {
+                if (!eliminated[v] && isCandidate(counts, v)) candidates.add(candidate(counts, v));
+            }
+        }
+    }
+
+    /**
+     * replaces the clauses of s that contain the variable with their resolvents upon it,
+     * if the set does not grow. The resolvents added to s are put into "added".
+     *
+     * @return the clauses removed, or null if the variable has not been eliminated,
+     *         the empty clause has been derived or the budget is exhausted.
+     */
+    private List<Clause> tryEliminate(ClauseSet s, OccurrenceIndex occurrences, int var, List<Clause> added,
+            Budget.Meter meter) {
+
+        int pivot = SymbolTable.encode(var, false);
+        //the index is purged after each elimination, so its lists contain only the clauses of s
+        List<Clause> positive = occurrences.get(pivot);
+        List<Clause> negative = occurrences.get(SymbolTable.opposite(pivot));
+
+        int maxClauses = positive.size() + negative.size();
+        long maxLiterals = 0;
+
+        for (Clause c : positive) {
+            maxLiterals += c.size();
+        }
+
+        for (Clause c : negative) {
+            maxLiterals += c.size();
+        }
+
+        ClauseSet resolvents = new ClauseSet();
+        long literals = 0;
+
+        for (Clause p : positive) {
+            for (Clause n : negative) {
+                Clause r = Clause.resolveUnlessTautology(p, n, pivot);
+                StopReason reason = meter.tick(++generated, s.size());
+
+                if (reason != null) {
+                    stopReason = reason;
+                    return null;
+                }
+
+                if (r == null || s.contains(r) || resolvents.contains(r)) continue;
+
+                if (r.isEmpty()) {
+                    empty = r;
+                    return null;
+                }
+
+                resolvents.add(r);
+                literals += r.size();
+
+                if (resolvents.size() > maxClauses || literals > maxLiterals) return null;
+            }
+        }
+
+        List<Clause> res = new ArrayList<>(positive);
+        res.addAll(negative);
+
+        for (Clause c : res) {
+            s.remove(c);
+            occurrences.remove(c);
+        }
+
+        for (Clause r : resolvents) {
+            s.add(r);
+            occurrences.add(r);
+            added.add(r);
+        }
+
+        occurrences.purge();
+
+        return res;
+    }
+
+    /**
+     * the counts and the variable are indexed by the local numbers of a {@link VariableMap}.
+     *
+     * @return the number of pairs of clauses to resolve to eliminate the variable,
+     *         at most Integer.MAX_VALUE, or -1 if the variable does not occur in the set.
+     */
+    private static long cost(int[] counts, int var) {
+        long positive = counts[SymbolTable.encode(var, false)];
+        long negative = counts[SymbolTable.encode(var, true)];
+
+        if (positive == 0 && negative == 0) return -1;
+
+        return Math.min(positive * negative, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return true, if the variable occurs in the set and it is cheap enough to be tried.
+     */
+    private static boolean isCandidate(int[] counts, int var) {
+        long pairs = cost(counts, var);
+        int occurrences = counts[SymbolTable.encode(var, false)] + counts[SymbolTable.encode(var, true)];
+
+        //a pure variable is eliminated without resolving any pair
+        return pairs == 0 || (pairs > 0 && pairs <= MAX_PAIRS && occurrences <= MAX_OCCURRENCES);
+    }
+
+    private static long candidate(int[] counts, int var) {
+        return (cost(counts, var) << 32) | var;
+    }
+
+    /**
+     * this class represents the elimination of a variable, with the clauses that it has removed.
+     */
+    private static class Elimination {
+
+        //FIELDS
+        private final int var;
+        private final List<Clause> clauses;
+
+        //CONSTRUCTORS
+
+        public Elimination(int var, List<Clause> clauses) {
+            this.var = var;
+            this.clauses = clauses;
+        }
+    }
+}
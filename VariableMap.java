@@ -0,0 +1,115 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class renumbers from 0 the variables that appear in a set of clauses,
+ * in the order of their first occurrence.
+ *
+ * The arrays indexed by variable of a solver are sized with the local numbers,
+ * so their size depends only on the set, and not on all the variables ever
+ * interned in the {@link SymbolTable}. A variable of the table is translated
+ * by a binary search over the sorted variables of the set.
+ */
+public class VariableMap {
+
+    //FIELDS
+    private final int[] sorted; //the variables of the set, in increasing order
+    private final int[] locals; //the local number of each variable of sorted
+    private final int[] globals; //the variable of the SymbolTable of each local number
+
+    //CONSTRUCTORS
+
+    /**
+     * Constructs the map of the variables of the specified set of clauses.
+     *
+     * @param s the set of clauses.
+     * @throws NullPointerException if s is null.
+     */
+    public VariableMap(ClauseSet s) {
+        Objects.requireNonNull(s);
+
+        int n = 0;
+
+        for (Clause c : s) {
+            n += c.size();
+        }
+
+        int[] all = new int[n];
+        n = 0;
+
+        for (Clause c : s) {
+            for (int k = 0; k < c.size(); k++) {
+                all[n++] = SymbolTable.variable(c.codeAt(k));
+            }
+        }
+
+        int[] vars = all.clone();
+        Arrays.sort(vars);
+
+        int m = 0;
+
+        for (int i = 0; i < vars.length; i++) {
+            if (i == 0 || vars[i] != vars[i - 1]) vars[m++] = vars[i];
+        }
+
+        this.sorted = Arrays.copyOf(vars, m);
+        this.locals = new int[m];
+        this.globals = new int[m];
+
+        Arrays.fill(locals, -1);
+
+        int next = 0;
+
+        for (int var : all) {
+            int i = Arrays.binarySearch(sorted, var);
+
+            if (locals[i] == -1) {
+                locals[i] = next;
+                globals[next++] = var;
+            }
+        }
+    }
+
+    //METHODS
+
+    /**
+     * @return the number of variables of the set.
+     */
+    public int size() {
+        return globals.length;
+    }
+
+    /**
+     * @param var a variable of the SymbolTable.
+     * @return the local number of the variable, or -1 if it does not appear in the set.
+     */
+    public int local(int var) {
+        int i = Arrays.binarySearch(sorted, var);
+
+        return (i >= 0) ? locals[i] : -1;
+    }
+
+    /**
+     * @param local the local number of a variable of the set.
+     * @return the variable of the SymbolTable.
+     */
+    public int global(int local) {
+        return globals[local];
+    }
+
+    /**
+     * @param code the code of a literal of the set.
+     * @return the code of the literal with the local number of its variable.
+     */
+    public int localCode(int code) {
+        return SymbolTable.encode(local(SymbolTable.variable(code)), SymbolTable.isNegated(code));
+    }
+
+    /**
+     * @param code the code of a literal with the local number of its variable.
+     * @return the code of the literal with the variable of the SymbolTable.
+     */
+    public int globalCode(int code) {
+        return SymbolTable.encode(global(SymbolTable.variable(code)), SymbolTable.isNegated(code));
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class without constructors generates the workloads of the benchmarks.
+ *
+ * It is in the default package like the classes of the engine, so that it can use
+ * them directly. The benchmarks, which JMH does not allow in the default package,
+ * call it through risoluzione.bench.Engine.
+ */
+public class Workloads {
+
+    /**
+     * generates a random 3-SAT set of clauses: each clause contains three distinct
+     * variables, each of them negated with probability 1/2.
+     * With ratio = 4.26 the sets are at the phase transition, where about half of them
+     * are satisfiable and they are the hardest to solve.
+     *
+     * @param vars the number of variables, named x0, x1, ...
+     * @param ratio the number of clauses divided by the number of variables.
+     * @param seed the seed of the generator.
+     * @return the set of clauses.
+     */
+    public static ClauseSet random3Sat(int vars, double ratio, long seed) {
+        if (vars < 3) throw new IllegalArgumentException("at least three variables are required");
+
+        Random random = new Random(seed);
+        ClauseSet res = new ClauseSet();
+        int clauses = (int) Math.round(vars * ratio);
+
+        while (res.size() < clauses) {
+            res.add(randomClause(3, vars, random));
+        }
+
+        return res;
+    }
+
+    /**
+     * generates the pigeonhole formula PHP(n + 1, n): n + 1 pigeons must be placed
+     * in n holes, without two pigeons in the same hole. It is unsatisfiable, and every
+     * refutation by resolution has exponential size.
+     *
+     * @param holes the number of holes.
+     * @return the set of clauses.
+     */
+    public static ClauseSet pigeonhole(int holes) {
+        if (holes < 1) throw new IllegalArgumentException("at least one hole is required");
+
+        ClauseSet res = new ClauseSet();
+
+        //each pigeon is in some hole
+        for (int p = 0; p <= holes; p++) {
+            List<Literal> literals = new ArrayList<>();
+
+            for (int h = 0; h < holes; h++) {
+                literals.add(new Atom(pigeon(p, h)));
+            }
+
+            res.add(new Clause(literals));
+        }
+
+        //no two pigeons are in the same hole
+        for (int h = 0; h < holes; h++) {
+            for (int p = 0; p <= holes; p++) {
+                for (int q = p + 1; q <= holes; q++) {
+                    List<Literal> literals = new ArrayList<>();
+                    literals.add(new NegAtom(pigeon(p, h)));
+                    literals.add(new NegAtom(pigeon(q, h)));
+
+                    res.add(new Clause(literals));
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * generates the chain a1 <-> (a2 <-> (... <-> (a(depth) <-> a(depth + 1)))).
+     * Its equivalent CNF has 2^depth clauses, while the Tseitin encoding is linear.
+     *
+     * @param depth the number of IFF connectives.
+     * @return the formula.
+     */
+    public static Formula iffChain(int depth) {
+        if (depth < 1) throw new IllegalArgumentException("the depth must be positive");
+
+        Formula res = new AtomicFormula("a" + (depth + 1));
+
+        for (int i = depth; i >= 1; i--) {
+            res = new CompoundFormula(Connective.IFF, new AtomicFormula("a" + i), res);
+        }
+
+        return res;
+    }
+
+    /**
+     * generates a clause with distinct variables, so it is not a tautology.
+     *
+     * @param size the number of literals.
+     * @param vars the number of variables, named x0, x1, ...
+     * @param random the generator.
+     * @return the clause.
+     */
+    public static Clause randomClause(int size, int vars, Random random) {
+        if (size > vars) throw new IllegalArgumentException("the size is greater than the number of variables");
+
+        Clause res = new Clause();
+
+        while (res.size() < size) {
+            String name = "x" + random.nextInt(vars);
+            Literal l = random.nextBoolean() ? new Atom(name) : new NegAtom(name);
+
+            //the opposite literal would make the clause a tautology
+            if (!res.contains(l.getOpposite())) res.add(l);
+        }
+
+        return res;
+    }
+
+    private static String pigeon(int p, int h) {
+        return "p" + p + "_" + h;
+    }
+}
@@ -0,0 +1,66 @@
+package risoluzione.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmarks of the single operations on clauses, over a pool of random clauses
+ * without tautologies, so that isTautology scans the whole clause.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClauseBenchmark {
+
+    //the number of clauses in the pool, a power of 2
+    private static final int POOL = 64;
+    private static final int VARS = 1000;
+
+    @Param({ "3", "10", "50" })
+    public int size;
+
+    private Object[] clauses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        clauses = new Object[POOL];
+
+        for (int i = 0; i < POOL; i++) {
+            clauses[i] = Engine.randomClause(size, VARS, random);
+        }
+
+        next = 0;
+    }
+
+    @Benchmark
+    public Object union() {
+        next = (next + 1) & (POOL - 1);
+
+        return Engine.union(clauses[next], clauses[(next + 1) & (POOL - 1)]);
+    }
+
+    @Benchmark
+    public boolean isTautology() {
+        next = (next + 1) & (POOL - 1);
+
+        return Engine.isTautology(clauses[next]);
+    }
+}
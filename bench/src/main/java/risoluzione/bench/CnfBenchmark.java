@@ -0,0 +1,50 @@
+package risoluzione.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmarks of the conversion of nested IFF chains into clauses: the equivalent
+ * CNF (CompoundFormula.toCnf), whose size is exponential in the depth, and the
+ * Tseitin encoding (Formula.toTseitinCnf), whose size is linear.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CnfBenchmark {
+
+    @Param({ "4", "8", "12" })
+    public int depth;
+
+    private Object formula;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        formula = Engine.iffChain(depth);
+    }
+
+    @Benchmark
+    public Object toCnf() {
+        return Engine.toCnf(formula);
+    }
+
+    @Benchmark
+    public Object toTseitinCnf() {
+        return Engine.toTseitinCnf(formula);
+    }
+}
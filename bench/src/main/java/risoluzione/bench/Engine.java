@@ -0,0 +1,179 @@
+package risoluzione.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+
+/**
+ * This class without constructors gives the benchmarks access to the engine.
+ *
+ * The classes of the engine are in the default package, which cannot be imported,
+ * so they are reached through method handles, adapted to use Object instead of
+ * the classes of the engine. The handles are static final fields and they are
+ * called with invokeExact, so the JIT compiler inlines them like direct calls.
+ */
+final class Engine {
+
+    //STATIC FIELDS
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final Class<?> CLAUSE = load("Clause");
+    private static final Class<?> CLAUSE_SET = load("ClauseSet");
+    private static final Class<?> FORMULA = load("Formula");
+    private static final Class<?> WORKLOADS = load("Workloads");
+
+    private static final MethodHandle RANDOM_3SAT = findStatic(WORKLOADS, "random3Sat",
+        MethodType.methodType(CLAUSE_SET, int.class, double.class, long.class));
+    private static final MethodHandle PIGEONHOLE = findStatic(WORKLOADS, "pigeonhole",
+        MethodType.methodType(CLAUSE_SET, int.class));
+    private static final MethodHandle IFF_CHAIN = findStatic(WORKLOADS, "iffChain",
+        MethodType.methodType(FORMULA, int.class));
+    private static final MethodHandle RANDOM_CLAUSE = findStatic(WORKLOADS, "randomClause",
+        MethodType.methodType(CLAUSE, int.class, int.class, Random.class));
+
+    private static final MethodHandle IS_SATISFIABLE = findStatic(load("Resolution"), "isSatisfiable",
+        MethodType.methodType(boolean.class, CLAUSE_SET, boolean.class));
+    private static final MethodHandle TO_CNF = findVirtual(FORMULA, "toCnf",
+        MethodType.methodType(CLAUSE_SET));
+    private static final MethodHandle TO_TSEITIN_CNF = findVirtual(FORMULA, "toTseitinCnf",
+        MethodType.methodType(CLAUSE_SET));
+    private static final MethodHandle UNION = findStatic(CLAUSE, "union",
+        MethodType.methodType(CLAUSE, CLAUSE, CLAUSE));
+    private static final MethodHandle IS_TAUTOLOGY = findVirtual(CLAUSE, "isTautology",
+        MethodType.methodType(boolean.class));
+
+    //STATIC METHODS
+
+    static Object random3Sat(int vars, double ratio, long seed) {
+        try {
+            return (Object) RANDOM_3SAT.invokeExact(vars, ratio, seed);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object pigeonhole(int holes) {
+        try {
+            return (Object) PIGEONHOLE.invokeExact(holes);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object iffChain(int depth) {
+        try {
+            return (Object) IFF_CHAIN.invokeExact(depth);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object randomClause(int size, int vars, Random random) {
+        try {
+            return (Object) RANDOM_CLAUSE.invokeExact(size, vars, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * @param clauses a ClauseSet.
+     * @return the result of Resolution.isSatisfiable, without the trace.
+     */
+    static boolean isSatisfiable(Object clauses) {
+        try {
+            return (boolean) IS_SATISFIABLE.invokeExact(clauses, false);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object toCnf(Object formula) {
+        try {
+            return (Object) TO_CNF.invokeExact(formula);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object toTseitinCnf(Object formula) {
+        try {
+            return (Object) TO_TSEITIN_CNF.invokeExact(formula);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object union(Object c1, Object c2) {
+        try {
+            return (Object) UNION.invokeExact(c1, c2);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isTautology(Object clause) {
+        try {
+            return (boolean) IS_TAUTOLOGY.invokeExact(clause);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("the class " + name + " of the engine is not in the class path", e);
+        }
+    }
+
+    /**
+     * finds a static method, adapted to use Object for the classes of the engine.
+     */
+    private static MethodHandle findStatic(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(owner, name, type).asType(erase(type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("the method " + owner.getName() + "." + name + " is not found", e);
+        }
+    }
+
+    /**
+     * finds an instance method, adapted to use Object for the receiver and the classes of the engine.
+     */
+    private static MethodHandle findVirtual(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(owner, name, type).asType(erase(type.insertParameterTypes(0, owner)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("the method " + owner.getName() + "." + name + " is not found", e);
+        }
+    }
+
+    /**
+     * replaces the classes of the engine with Object, keeping the primitive types and the JDK classes.
+     */
+    private static MethodType erase(MethodType type) {
+        MethodType res = type;
+
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isEngineClass(type.parameterType(i))) res = res.changeParameterType(i, Object.class);
+        }
+
+        if (isEngineClass(type.returnType())) res = res.changeReturnType(Object.class);
+
+        return res;
+    }
+
+    private static boolean isEngineClass(Class<?> c) {
+        return !c.isPrimitive() && c.getPackageName().isEmpty();
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+
+        return new IllegalStateException(t);
+    }
+}
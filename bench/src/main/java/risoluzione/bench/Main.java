@@ -0,0 +1,52 @@
+package risoluzione.bench;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the options of the JMH command line, always adding
+ * the GC profiler, so that the allocation rate is reported with the throughput.
+ * The options that only print something (-h, -l, -lp, -lprof, -lrf) are handled
+ * as org.openjdk.jmh.Main does, without running the benchmarks.
+ */
+public class Main {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions cmd;
+
+        try {
+            cmd = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line:");
+            System.err.println(" " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+        } else if (cmd.shouldList()) {
+            new Runner(cmd).list();
+        } else if (cmd.shouldListWithParams()) {
+            new Runner(cmd).listWithParams(cmd);
+        } else if (cmd.shouldListProfilers()) {
+            cmd.listProfilers();
+        } else if (cmd.shouldListResultFormats()) {
+            cmd.listResultFormats();
+        } else {
+            Options options = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+            new Runner(options).run();
+        }
+    }
+}
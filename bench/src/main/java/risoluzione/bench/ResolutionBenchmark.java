@@ -0,0 +1,86 @@
+package risoluzione.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * benchmarks of Resolution.isSatisfiable on random 3-SAT sets at the phase
+ * transition and on the pigeonhole formulas.
+ * The solver works on a copy of its input, so the same sets are solved at each call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    //the ratio between clauses and variables at the phase transition of 3-SAT
+    private static final double THRESHOLD = 4.26;
+
+    //the number of random sets solved by each call, so that both results are measured
+    private static final int INSTANCES = 8;
+
+    @State(Scope.Benchmark)
+    public static class Random3Sat {
+
+        @Param({ "10", "12", "14" })
+        public int vars;
+
+        Object[] sets;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            sets = new Object[INSTANCES];
+
+            for (int i = 0; i < INSTANCES; i++) {
+                sets[i] = Engine.random3Sat(vars, THRESHOLD, i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pigeonhole {
+
+        @Param({ "2", "3" })
+        public int holes;
+
+        Object set;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            set = Engine.pigeonhole(holes);
+        }
+    }
+
+    /**
+     * @return the number of satisfiable sets, so that the calls are not eliminated.
+     */
+    @Benchmark
+    public int random3Sat(Random3Sat state) {
+        int res = 0;
+
+        for (Object s : state.sets) {
+            if (Engine.isSatisfiable(s)) res++;
+        }
+
+        return res;
+    }
+
+    @Benchmark
+    public boolean pigeonhole(Pigeonhole state) {
+        return Engine.isSatisfiable(state.set);
+    }
+}
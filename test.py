@@ -1,34 +1,46 @@
 #  this script tests the resolution method on all txt files contained
 #  within the "test" directory. These files contain the clause sets to test. 
 #  The script separates the satisfiable clause sets from the unsatisfiable ones, 
-#  and checks whether the string "UNSATISFIABLE" does not appear in the output 
-#  of the satisfiable ones, while it must appear in the output of the 
-#  unsatisfiable ones. If one or more files fail the test, then the script 
+#  and checks whether the result of the satisfiable ones is "SATISFIABLE", 
+#  while the result of the unsatisfiable ones must be "UNSATISFIABLE". 
+#  The files are solved by "java Test batch", which prints the result of 
+#  each file. If one or more files fail the test, then the script 
 #  prints the list of txt files that failed the test.
+#  Every file is tested with each of the modes listed in MODES.
+#  The files with the ".cnf" extension are in the DIMACS CNF format.
 
 
 import os
 
-def get_output(file):
-    p = os.popen(f'java Test < ./test/{file}')
-    out = p.read()
-    return out
+MODES = ['', 'given', 'given age', 'given fresh', 'cdcl', 'parallel', 'incremental', 'sos',
+         'ordered frequency', 'ordered appearance select maxneg',
+         'eliminate', 'eliminate cdcl', 'eliminate sos support 1'] #the command line arguments of each run
+
+def get_results(mode):
+    #all the files are solved by a single JVM, which prints a line for each file
+    p = os.popen(f'java Test batch {mode} test')
+    results = {}
+    for line in p.read().splitlines():
+        words = line.split()
+        if len(words) >= 2 and words[0].startswith('test'):
+            results[os.path.basename(words[0])] = words[1]
+    return results
 
 
 
 
 rejectedFiles = [] #list of files that failed the test
 
-for direc, subdir, files in os.walk('test'):
-    for f in files:
-        if f.startswith('sat'):
-            out = get_output(f)
-            if out.find("UNSATISFIABLE") != -1: #if we find the substring "UNSATISFIABLE" in the output
-                rejectedFiles.append(f)
-        elif f.startswith('unsat'):
-            out = get_output(f)
-            if out.find("UNSATISFIABLE") == -1: #if we don't find the substring "UNSATISFIABLE" in the output
-                rejectedFiles.append(f)
+for mode in MODES:
+    results = get_results(mode)
+    for direc, subdir, files in os.walk('test'):
+        for f in sorted(files):
+            if f.startswith('sat'):
+                if results.get(f) != 'SATISFIABLE':
+                    rejectedFiles.append(f'{f} ({mode})')
+            elif f.startswith('unsat'):
+                if results.get(f) != 'UNSATISFIABLE':
+                    rejectedFiles.append(f'{f} ({mode})')
 
 
 
@@ -38,5 +50,3 @@ if not rejectedFiles: #if the list is empty
 else:
     for file in rejectedFiles:
         print(f'Test FAILED at the file "{file}"')
-
-